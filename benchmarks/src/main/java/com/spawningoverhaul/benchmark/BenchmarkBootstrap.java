@@ -0,0 +1,92 @@
+package com.spawningoverhaul.benchmark;
+
+import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.spawn.rules.MobRuleRegistry;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * One-time setup shared by all benchmarks: vanilla bootstrap, log tag binding and config.
+ * Tags are normally bound by datapack loading, which does not run outside a server.
+ */
+public final class BenchmarkBootstrap {
+
+    private static boolean initialized;
+
+    private BenchmarkBootstrap() {
+    }
+
+    public static synchronized void init() {
+        init(null);
+    }
+
+    /**
+     * Set up with the config file from a folder instead of the defaults.
+     *
+     * @param configDir Folder containing spawningoverhaul.json5, or null for the default config
+     */
+    public static synchronized void init(Path configDir) {
+        if (initialized) {
+            return;
+        }
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bindLogTag();
+
+        try {
+            SpawningConfig.setConfigPath(configDir != null ? configDir : Files.createTempDirectory("spawningoverhaul-bench"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (configDir != null) {
+            SpawningConfig.load();
+        }
+        MobRuleRegistry.registerDefaults();
+        MobRuleRegistry.freeze();
+
+        initialized = true;
+    }
+
+    /**
+     * Config instance used by the code under test; benchmarks adjust it per trial
+     * and publish the change with {@link com.spawningoverhaul.config.CompiledConfig#compile}.
+     */
+    public static SpawningConfig config() {
+        return SpawningConfig.HANDLER().instance();
+    }
+
+    /**
+     * Bind #minecraft:logs to the blocks of the vanilla tag: the logs, wood and stripped variants
+     * of every overworld tree (#minecraft:logs_that_burn) plus the crimson and warped stems and hyphae.
+     */
+    private static void bindLogTag() {
+        List<Holder<Block>> logs = Stream.of(
+                        Blocks.OAK_LOG, Blocks.OAK_WOOD, Blocks.STRIPPED_OAK_LOG, Blocks.STRIPPED_OAK_WOOD,
+                        Blocks.SPRUCE_LOG, Blocks.SPRUCE_WOOD, Blocks.STRIPPED_SPRUCE_LOG, Blocks.STRIPPED_SPRUCE_WOOD,
+                        Blocks.BIRCH_LOG, Blocks.BIRCH_WOOD, Blocks.STRIPPED_BIRCH_LOG, Blocks.STRIPPED_BIRCH_WOOD,
+                        Blocks.JUNGLE_LOG, Blocks.JUNGLE_WOOD, Blocks.STRIPPED_JUNGLE_LOG, Blocks.STRIPPED_JUNGLE_WOOD,
+                        Blocks.ACACIA_LOG, Blocks.ACACIA_WOOD, Blocks.STRIPPED_ACACIA_LOG, Blocks.STRIPPED_ACACIA_WOOD,
+                        Blocks.DARK_OAK_LOG, Blocks.DARK_OAK_WOOD, Blocks.STRIPPED_DARK_OAK_LOG, Blocks.STRIPPED_DARK_OAK_WOOD,
+                        Blocks.MANGROVE_LOG, Blocks.MANGROVE_WOOD, Blocks.STRIPPED_MANGROVE_LOG, Blocks.STRIPPED_MANGROVE_WOOD,
+                        Blocks.CHERRY_LOG, Blocks.CHERRY_WOOD, Blocks.STRIPPED_CHERRY_LOG, Blocks.STRIPPED_CHERRY_WOOD,
+                        Blocks.CRIMSON_STEM, Blocks.CRIMSON_HYPHAE, Blocks.STRIPPED_CRIMSON_STEM, Blocks.STRIPPED_CRIMSON_HYPHAE,
+                        Blocks.WARPED_STEM, Blocks.WARPED_HYPHAE, Blocks.STRIPPED_WARPED_STEM, Blocks.STRIPPED_WARPED_HYPHAE)
+                .<Holder<Block>>map(Block::builtInRegistryHolder)
+                .toList();
+        BuiltInRegistries.BLOCK.bindTags(Map.of(BlockTags.LOGS, logs));
+    }
+}
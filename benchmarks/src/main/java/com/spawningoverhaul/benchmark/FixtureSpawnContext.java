@@ -0,0 +1,23 @@
+package com.spawningoverhaul.benchmark;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobSpawnType;
+
+/**
+ * Spawn context for a {@link SyntheticLevel}.
+ * Every probe runs its live code path against the fixture; only the time of day is fixed,
+ * since a headless level never updates its sky darkness.
+ */
+public class FixtureSpawnContext extends SpawnContext {
+
+    public FixtureSpawnContext(SyntheticLevel fixture, BlockPos spawnPos, EntityType<?> entityType) {
+        super(fixture, spawnPos, entityType, MobSpawnType.NATURAL);
+    }
+
+    @Override
+    public boolean isNight() {
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spawningoverhaul.benchmark;
+
+import com.spawningoverhaul.spawn.ForestSampler;
+import com.spawningoverhaul.spawn.LocationDetector;
+import com.spawningoverhaul.spawn.index.LogIndex;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of counting logs around one spawn position, per forest scan strategy.
+ * {@code blockScan} is the block-by-block full scan, {@code fullScan} the section-walking one,
+ * {@code logIndex} the masked bit count over the log index and {@code summedArea} its summed-area tables.
+ * With {@code variedY}, positions spread over the whole height below the surface like vanilla's
+ * spawn attempts, so each query scans a different band.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ForestDensityBenchmark {
+
+    @Param({"FOREST", "DEEP_CAVE", "OPEN_PLAINS"})
+    public Scenario scenario;
+
+    @Param({"5", "10", "20", "30"})
+    public int scanRadius;
+
+    @Param({"50", "200"})
+    public int logThreshold;
+
+    @Param({"96"})
+    public int sampleBudget;
+
+    @Param({"false", "true"})
+    public boolean variedY;
+
+    private SyntheticLevel level;
+    private LogIndex logIndex;
+    private BlockPos[] positions;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        level = SyntheticLevel.of(scenario);
+        logIndex = LogIndex.forLevel(level);
+        positions = Positions.sample(level, 1L, variedY);
+    }
+
+    @Benchmark
+    public int blockScan() {
+        BlockPos pos = positions[cursor++ & (Positions.COUNT - 1)];
+        return LocationDetector.countLogsByBlock(level, pos, scanRadius, logThreshold);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        BlockPos pos = positions[cursor++ & (Positions.COUNT - 1)];
+        return LocationDetector.countLogs(level, pos, scanRadius, logThreshold);
+    }
+
+    @Benchmark
+    public int logIndex() {
+        BlockPos pos = positions[cursor++ & (Positions.COUNT - 1)];
+        return logIndex.countLogs(level, pos, scanRadius, LocationDetector.FOREST_SCAN_VERTICAL_RANGE, logThreshold);
+    }
+
+    @Benchmark
+    public int summedArea() {
+        BlockPos pos = positions[cursor++ & (Positions.COUNT - 1)];
+        return logIndex.countLogsSummed(level, pos, scanRadius, LocationDetector.FOREST_SCAN_VERTICAL_RANGE);
+    }
+
+    @Benchmark
+    public double sampled() {
+        BlockPos pos = positions[cursor++ & (Positions.COUNT - 1)];
+        return ForestSampler.estimateLogs(level, pos, scanRadius, sampleBudget);
+    }
+}
@@ -0,0 +1,422 @@
+package com.spawningoverhaul.benchmark;
+
+import com.mojang.serialization.Lifecycle;
+import com.spawningoverhaul.spawn.LocationDetector;
+import com.spawningoverhaul.spawn.StructureCache;
+import com.spawningoverhaul.spawn.index.ChunkLogColumns;
+import com.spawningoverhaul.spawn.index.LogIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.data.registries.VanillaRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.DifficultyInstance;
+import net.minecraft.world.TickRateManager;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.flag.FeatureFlagSet;
+import net.minecraft.world.flag.FeatureFlags;
+import net.minecraft.world.item.alchemy.PotionBrewing;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkSource;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.LightChunk;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.entity.LevelEntityGetter;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.saveddata.maps.MapId;
+import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
+import net.minecraft.world.level.storage.WritableLevelData;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.scores.Scoreboard;
+import net.minecraft.world.ticks.BlackholeTickAccess;
+import net.minecraft.world.ticks.LevelTickAccess;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Level backed by in-memory chunk sections, so the spawn probes run their live code paths
+ * (sky and cave checks, forest scans, structure cache, biome lookup) without a server.
+ *
+ * Subclasses provide the sections, heightmaps and structures; this class answers the parts of
+ * the level the probes read from them and stubs the rest. It has no loaded chunks, light or
+ * entities: sky light checks compare against the MOTION_BLOCKING heightmap, biomes default to
+ * plains, and services the probes never use throw. Its log index, caches and stats live in its own
+ * {@link com.spawningoverhaul.spawn.LevelSpawnState}, keyed by the dimension passed in, so
+ * every instance must use a dimension of its own and stay on one thread.
+ */
+public abstract class HeadlessLevel extends Level implements LocationDetector.SectionSource, StructureCache.StructureSource {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final ChunkSource chunkSource = new EmptyChunkSource();
+    private final HeadlessLevelData data;
+
+    protected HeadlessLevel(ResourceKey<Level> dimension) {
+        this(dimension, new HeadlessLevelData());
+    }
+
+    private HeadlessLevel(ResourceKey<Level> dimension, HeadlessLevelData data) {
+        super(data, dimension, Worldgen.REGISTRY_ACCESS, Worldgen.OVERWORLD, () -> InactiveProfiler.INSTANCE,
+                false, false, 0L, 0);
+        this.data = data;
+    }
+
+    /**
+     * Dimension key for a headless level.
+     */
+    protected static ResourceKey<Level> dimension(String path) {
+        return ResourceKey.create(Registries.DIMENSION, ResourceLocation.fromNamespaceAndPath("benchmark", path));
+    }
+
+    /**
+     * Set the game time, which keys the spawn rolls ({@link com.spawningoverhaul.spawn.SpawnRoll#key}).
+     * The time of day is not affected.
+     */
+    public void setGameTime(long gameTime) {
+        data.gameTime = gameTime;
+    }
+
+    /**
+     * Lowest Y above every block matching the heightmap in a column, or the bottom of the world
+     * if the column is not available.
+     */
+    protected abstract int heightmap(Heightmap.Types type, int x, int z);
+
+    /**
+     * Add every available chunk to this level's log index.
+     */
+    protected void indexLogs(Iterable<ChunkPos> chunks) {
+        LogIndex index = LogIndex.forLevel(this);
+        for (ChunkPos pos : chunks) {
+            index.putChunk(pos.x, pos.z, ChunkLogColumns.build(getSections(pos.x, pos.z), getMinSection()));
+        }
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        return heightmap(type, x, z);
+    }
+
+    @Override
+    public boolean canSeeSky(BlockPos pos) {
+        return pos.getY() >= heightmap(Heightmap.Types.MOTION_BLOCKING, pos.getX(), pos.getZ());
+    }
+
+    @Override
+    public boolean hasChunk(int chunkX, int chunkZ) {
+        return getSections(chunkX, chunkZ) != null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int y = pos.getY();
+        if (isOutsideBuildHeight(y)) {
+            return AIR;
+        }
+        LevelChunkSection[] sections = getSections(pos.getX() >> 4, pos.getZ() >> 4);
+        if (sections == null) {
+            return AIR;
+        }
+        return sections[getSectionIndex(y)].getBlockState(pos.getX() & 15, y & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public Holder<Biome> getUncachedNoiseBiome(int quartX, int quartY, int quartZ) {
+        return Worldgen.PLAINS;
+    }
+
+    @Override
+    public ChunkSource getChunkSource() {
+        return chunkSource;
+    }
+
+    @Override
+    public FeatureFlagSet enabledFeatures() {
+        return FeatureFlags.DEFAULT_FLAGS;
+    }
+
+    @Override
+    public float getShade(Direction direction, boolean shade) {
+        return 1.0F;
+    }
+
+    @Override
+    public int getSeaLevel() {
+        return 63;
+    }
+
+    @Override
+    public List<? extends Player> players() {
+        return List.of();
+    }
+
+    @Override
+    public Entity getEntity(int id) {
+        return null;
+    }
+
+    @Override
+    public DifficultyInstance getCurrentDifficultyAt(BlockPos pos) {
+        return new DifficultyInstance(getDifficulty(), getDayTime(), 0L, getMoonBrightness());
+    }
+
+    @Override
+    public LevelTickAccess<Block> getBlockTicks() {
+        return BlackholeTickAccess.emptyLevelList();
+    }
+
+    @Override
+    public LevelTickAccess<Fluid> getFluidTicks() {
+        return BlackholeTickAccess.emptyLevelList();
+    }
+
+    @Override
+    public void sendBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags) {
+    }
+
+    @Override
+    public void playSeededSound(Player player, double x, double y, double z, Holder<SoundEvent> sound, SoundSource source,
+                                float volume, float pitch, long seed) {
+    }
+
+    @Override
+    public void playSeededSound(Player player, Entity entity, Holder<SoundEvent> sound, SoundSource source,
+                                float volume, float pitch, long seed) {
+    }
+
+    @Override
+    public void levelEvent(Player player, int type, BlockPos pos, int data) {
+    }
+
+    @Override
+    public void gameEvent(Holder<GameEvent> gameEvent, Vec3 pos, GameEvent.Context context) {
+    }
+
+    @Override
+    public void destroyBlockProgress(int breakerId, BlockPos pos, int progress) {
+    }
+
+    @Override
+    public String gatherChunkSourceStats() {
+        return "headless";
+    }
+
+    @Override
+    public TickRateManager tickRateManager() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    public MapItemSavedData getMapData(MapId mapId) {
+        return null;
+    }
+
+    @Override
+    public void setMapData(MapId mapId, MapItemSavedData data) {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    public MapId getFreeMapId() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    public Scoreboard getScoreboard() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    public RecipeManager getRecipeManager() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    public PotionBrewing potionBrewing() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    @Override
+    protected LevelEntityGetter<Entity> getEntities() {
+        throw new UnsupportedOperationException("Headless level");
+    }
+
+    /**
+     * Level data of a world at day time 0 in clear weather, with default game rules.
+     */
+    private static final class HeadlessLevelData implements WritableLevelData {
+        private final GameRules gameRules = new GameRules();
+        private long gameTime;
+        private BlockPos spawnPos = BlockPos.ZERO;
+        private float spawnAngle;
+        private boolean raining;
+
+        @Override
+        public void setSpawn(BlockPos pos, float angle) {
+            this.spawnPos = pos.immutable();
+            this.spawnAngle = angle;
+        }
+
+        @Override
+        public BlockPos getSpawnPos() {
+            return spawnPos;
+        }
+
+        @Override
+        public float getSpawnAngle() {
+            return spawnAngle;
+        }
+
+        @Override
+        public long getGameTime() {
+            return gameTime;
+        }
+
+        @Override
+        public long getDayTime() {
+            return 0L;
+        }
+
+        @Override
+        public boolean isThundering() {
+            return false;
+        }
+
+        @Override
+        public boolean isRaining() {
+            return raining;
+        }
+
+        @Override
+        public void setRaining(boolean raining) {
+            this.raining = raining;
+        }
+
+        @Override
+        public boolean isHardcore() {
+            return false;
+        }
+
+        @Override
+        public GameRules getGameRules() {
+            return gameRules;
+        }
+
+        @Override
+        public Difficulty getDifficulty() {
+            return Difficulty.NORMAL;
+        }
+
+        @Override
+        public boolean isDifficultyLocked() {
+            return false;
+        }
+    }
+
+    /**
+     * Chunk source without chunks; the probes read sections through {@link LocationDetector.SectionSource}.
+     */
+    private final class EmptyChunkSource extends ChunkSource {
+        private final LevelLightEngine lightEngine = new LevelLightEngine(this, false, false);
+
+        @Override
+        public ChunkAccess getChunk(int chunkX, int chunkZ, ChunkStatus status, boolean requireChunk) {
+            return null;
+        }
+
+        @Override
+        public void tick(BooleanSupplier hasTimeLeft, boolean tickChunks) {
+        }
+
+        @Override
+        public String gatherStats() {
+            return "headless";
+        }
+
+        @Override
+        public int getLoadedChunksCount() {
+            return 0;
+        }
+
+        @Override
+        public LightChunk getChunkForLighting(int chunkX, int chunkZ) {
+            return null;
+        }
+
+        @Override
+        public LevelLightEngine getLightEngine() {
+            return lightEngine;
+        }
+
+        @Override
+        public BlockGetter getLevel() {
+            return HeadlessLevel.this;
+        }
+    }
+
+    /**
+     * Vanilla registries the probes and the level itself resolve against,
+     * built once from the game's built-in data.
+     */
+    private static final class Worldgen {
+        static final RegistryAccess REGISTRY_ACCESS;
+        static final Holder<DimensionType> OVERWORLD;
+        static final Holder<Biome> PLAINS;
+
+        static {
+            HolderLookup.Provider lookup = VanillaRegistries.createLookup();
+            REGISTRY_ACCESS = new RegistryAccess.ImmutableRegistryAccess(List.of(
+                    copy(lookup, Registries.DIMENSION_TYPE),
+                    copy(lookup, Registries.BIOME),
+                    copy(lookup, Registries.STRUCTURE),
+                    copy(lookup, Registries.DAMAGE_TYPE)));
+            OVERWORLD = REGISTRY_ACCESS.registryOrThrow(Registries.DIMENSION_TYPE).getHolderOrThrow(BuiltinDimensionTypes.OVERWORLD);
+            PLAINS = REGISTRY_ACCESS.registryOrThrow(Registries.BIOME).getHolderOrThrow(Biomes.PLAINS);
+        }
+
+        private static <T> Registry<T> copy(HolderLookup.Provider lookup, ResourceKey<? extends Registry<T>> key) {
+            MappedRegistry<T> registry = new MappedRegistry<>(key, Lifecycle.stable());
+            lookup.lookupOrThrow(key).listElements().forEach(holder -> Registry.register(registry, holder.key(), holder.value()));
+            return registry.freeze();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.spawningoverhaul.benchmark;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+
+/**
+ * Deterministic spawn positions inside a fixture's fully generated area.
+ */
+final class Positions {
+
+    // Power of two so benchmarks can cycle with a mask
+    static final int COUNT = 1024;
+
+    private Positions() {
+    }
+
+    static BlockPos[] sample(SyntheticLevel level, long seed) {
+        return sample(level, seed, false);
+    }
+
+    /**
+     * @param variedY Spread positions between the bottom of the world and the fixture's spawn Y,
+     *                as vanilla does, instead of keeping them all at the spawn Y
+     */
+    static BlockPos[] sample(SyntheticLevel level, long seed, boolean variedY) {
+        RandomSource random = RandomSource.create(seed);
+        BlockPos[] positions = new BlockPos[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            int x = random.nextInt(64) - 32;
+            int z = random.nextInt(64) - 32;
+            int y = variedY ? SyntheticLevel.MIN_Y + random.nextInt(level.spawnY() - SyntheticLevel.MIN_Y + 1) : level.spawnY();
+            positions[i] = new BlockPos(x, y, z);
+        }
+        return positions;
+    }
+}
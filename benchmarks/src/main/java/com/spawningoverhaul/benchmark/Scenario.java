@@ -0,0 +1,26 @@
+package com.spawningoverhaul.benchmark;
+
+/**
+ * Synthetic terrain used by the benchmarks.
+ */
+public enum Scenario {
+    /**
+     * Grass surface with an oak trunk in roughly one of every twelve columns.
+     */
+    FOREST,
+
+    /**
+     * Solid stone with a sealed tunnel near the bottom of the world.
+     */
+    DEEP_CAVE,
+
+    /**
+     * Flat grass surface without logs.
+     */
+    OPEN_PLAINS,
+
+    /**
+     * Flat grass surface where every chunk lies inside a dangerous structure.
+     */
+    STRUCTURE_DENSE
+}
@@ -0,0 +1,78 @@
+package com.spawningoverhaul.benchmark;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.config.ForestScanMode;
+import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.spawn.SpawnMultiplierCalculator;
+import com.spawningoverhaul.spawn.SpawnRoll;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one full spawn decision (context creation, multiplier, probabilistic roll),
+ * as paid by the platform hooks for every natural spawn attempt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpawnDecisionBenchmark {
+
+    @Param({"FOREST", "DEEP_CAVE", "OPEN_PLAINS", "STRUCTURE_DENSE"})
+    public Scenario scenario;
+
+    @Param({"10", "30"})
+    public int scanRadius;
+
+    @Param({"50", "200"})
+    public int logThreshold;
+
+    @Param({"FULL_SCAN", "LOG_INDEX", "SAMPLED", "SUMMED_AREA"})
+    public ForestScanMode forestScanMode;
+
+    @Param({"zombie", "spider"})
+    public String mob;
+
+    private SyntheticLevel level;
+    private BlockPos[] positions;
+    private EntityType<?> entityType;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        SpawningConfig config = BenchmarkBootstrap.config();
+        config.denseForestScanRadius = scanRadius;
+        config.denseForestLogThreshold = logThreshold;
+        config.forestScanMode = forestScanMode;
+        CompiledConfig.compile(config);
+
+        level = SyntheticLevel.of(scenario);
+        positions = Positions.sample(level, 2L);
+        entityType = mob.equals("spider") ? EntityType.SPIDER : EntityType.ZOMBIE;
+    }
+
+    @Benchmark
+    public boolean decide() {
+        // A new tick per pass over the positions, so each position keeps getting fresh rolls
+        int index = cursor++;
+        BlockPos pos = positions[index & (Positions.COUNT - 1)];
+        FixtureSpawnContext context = new FixtureSpawnContext(level, pos, entityType);
+        return SpawnMultiplierCalculator.decide(context, SpawnRoll.key(3L, 0, index / Positions.COUNT));
+    }
+}
@@ -0,0 +1,155 @@
+package com.spawningoverhaul.benchmark;
+
+import com.mojang.serialization.Lifecycle;
+import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.spawn.StructureCache;
+import com.spawningoverhaul.spawn.StructureClassification;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.GenerationStep;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureType;
+import net.minecraft.world.level.levelgen.structure.TerrainAdjustment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a structure cache miss in a structure-dense region.
+ * Compares the reference-index lookup used by {@link StructureCache} with a reproduction
+ * of the previous registry-wide sweep, against a synthetic registry the size of a large
+ * modpack and a chunk that references a handful of overlapping structures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StructureLookupBenchmark {
+
+    private static final List<String> VANILLA_DANGEROUS = List.of(
+            "stronghold", "fortress", "monument", "mansion", "mineshaft", "dungeon");
+
+    @Param({"50", "500"})
+    public int registeredStructures;
+
+    @Param({"2", "8"})
+    public int referencesPerChunk;
+
+    private Registry<Structure> registry;
+    private StructureClassification classification;
+    private Set<String> dangerousIds;
+    private Set<String> safeIds;
+    private Map<Structure, LongSet> references;
+    private Map<Structure, BoundingBox> boxes;
+    private BlockPos pos;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        SpawningConfig config = BenchmarkBootstrap.config();
+
+        MappedRegistry<Structure> mappedRegistry = new MappedRegistry<>(Registries.STRUCTURE, Lifecycle.stable());
+        for (String path : VANILLA_DANGEROUS) {
+            Registry.register(mappedRegistry, ResourceLocation.withDefaultNamespace(path), new FixtureStructure());
+        }
+        Registry.register(mappedRegistry, ResourceLocation.withDefaultNamespace("village"), new FixtureStructure());
+        for (int i = 0; i < registeredStructures; i++) {
+            Registry.register(mappedRegistry, ResourceLocation.fromNamespaceAndPath("benchmark", "structure_" + i), new FixtureStructure());
+        }
+        registry = mappedRegistry;
+        classification = StructureClassification.forRegistry(registry);
+
+        dangerousIds = new HashSet<>();
+        VANILLA_DANGEROUS.forEach(path -> dangerousIds.add("minecraft:" + path));
+        dangerousIds.addAll(config.additionalDangerousStructures);
+        safeIds = new HashSet<>(List.of("minecraft:village"));
+        safeIds.addAll(config.additionalSafeStructures);
+
+        // The chunk references a random mix of modded structures and one (absent) mineshaft
+        pos = new BlockPos(8, 30, 8);
+        references = new IdentityHashMap<>();
+        boxes = new IdentityHashMap<>();
+        RandomSource random = RandomSource.create(4L);
+        references.put(registry.get(ResourceLocation.withDefaultNamespace("mineshaft")), new LongOpenHashSet(new long[]{0L}));
+        boxes.put(registry.get(ResourceLocation.withDefaultNamespace("mineshaft")), new BoundingBox(100, 0, 100, 120, 40, 120));
+        while (references.size() < referencesPerChunk) {
+            Structure structure = registry.get(ResourceLocation.fromNamespaceAndPath("benchmark", "structure_" + random.nextInt(registeredStructures)));
+            references.put(structure, new LongOpenHashSet(new long[]{0L}));
+            boxes.put(structure, new BoundingBox(0, 0, 0, 15, 60, 15));
+        }
+    }
+
+    @Benchmark
+    public boolean referenceIndex() {
+        return StructureCache.containsDangerousStructure(references.keySet(), classification,
+                structure -> boxes.get(structure).isInside(pos));
+    }
+
+    /**
+     * The lookup StructureCache performed before the reference index:
+     * every registered structure is stringified and checked for presence.
+     */
+    @Benchmark
+    public boolean registrySweep() {
+        for (var entry : registry.entrySet()) {
+            String structureIdString = entry.getKey().location().toString();
+            Structure structure = entry.getValue();
+
+            // Presence check: reference lookup, then bounding box
+            if (references.get(structure) != null && boxes.get(structure).isInside(pos)) {
+                if (safeIds.contains(structureIdString)) {
+                    continue;
+                }
+                if (dangerousIds.contains(structureIdString)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Minimal structure used only as a registry entry.
+     */
+    private static final class FixtureStructure extends Structure {
+        FixtureStructure() {
+            super(new StructureSettings(HolderSet.direct(), Map.of(), GenerationStep.Decoration.SURFACE_STRUCTURES, TerrainAdjustment.NONE));
+        }
+
+        @Override
+        protected Optional<GenerationStub> findGenerationPoint(GenerationContext context) {
+            return Optional.empty();
+        }
+
+        @Override
+        public StructureType<?> type() {
+            return StructureType.JIGSAW;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.spawningoverhaul.benchmark;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.structure.BuiltinStructures;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory terrain fixture with overworld height limits.
+ * Covers chunks -4..3 on both axes, so a radius-30 scan around any position in
+ * [-32, 31] stays inside generated terrain. In {@link Scenario#STRUCTURE_DENSE} every chunk
+ * references a mineshaft whose start covers the whole fixture.
+ */
+public class SyntheticLevel extends HeadlessLevel {
+
+    public static final int MIN_Y = -64;
+    public static final int HEIGHT = 384;
+    public static final int SURFACE_Y = 63;
+    public static final int CAVE_Y = -53;
+
+    private static final int CHUNK_RADIUS = 4;
+    private static final int SIZE = CHUNK_RADIUS * 32;
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final Map<Scenario, SyntheticLevel> FIXTURES = new ConcurrentHashMap<>();
+
+    private final Long2ObjectOpenHashMap<LevelChunkSection[]> chunks = new Long2ObjectOpenHashMap<>();
+    // Lowest Y above the terrain per column; every block of the fixture is motion blocking
+    private final short[] heights = new short[SIZE * SIZE];
+    private final Scenario scenario;
+    private final List<Structure> references;
+
+    private SyntheticLevel(Scenario scenario) {
+        super(dimension("synthetic_" + scenario.name().toLowerCase(Locale.ROOT)));
+        this.scenario = scenario;
+        this.references = scenario == Scenario.STRUCTURE_DENSE
+                ? List.of(registryAccess().registryOrThrow(Registries.STRUCTURE).getOrThrow(BuiltinStructures.MINESHAFT))
+                : List.of();
+    }
+
+    /**
+     * Get the (cached) fixture for a scenario.
+     */
+    public static SyntheticLevel of(Scenario scenario) {
+        return FIXTURES.computeIfAbsent(scenario, SyntheticLevel::generate);
+    }
+
+    private static SyntheticLevel generate(Scenario scenario) {
+        SyntheticLevel level = new SyntheticLevel(scenario);
+        int minBlock = -CHUNK_RADIUS * 16;
+        int maxBlock = CHUNK_RADIUS * 16 - 1;
+
+        List<ChunkPos> generated = new ArrayList<>();
+        for (int chunkX = -CHUNK_RADIUS; chunkX < CHUNK_RADIUS; chunkX++) {
+            for (int chunkZ = -CHUNK_RADIUS; chunkZ < CHUNK_RADIUS; chunkZ++) {
+                LevelChunkSection[] sections = new LevelChunkSection[HEIGHT >> 4];
+                for (int i = 0; i < sections.length; i++) {
+                    sections[i] = new LevelChunkSection(
+                            new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, AIR, PalettedContainer.Strategy.SECTION_STATES),
+                            null);
+                }
+                level.chunks.put(ChunkPos.asLong(chunkX, chunkZ), sections);
+                generated.add(new ChunkPos(chunkX, chunkZ));
+            }
+        }
+
+        BlockState stone = Blocks.STONE.defaultBlockState();
+        BlockState grass = Blocks.GRASS_BLOCK.defaultBlockState();
+        BlockState log = Blocks.OAK_LOG.defaultBlockState();
+        RandomSource random = RandomSource.create(42L);
+
+        for (int x = minBlock; x <= maxBlock; x++) {
+            for (int z = minBlock; z <= maxBlock; z++) {
+                for (int y = MIN_Y; y < SURFACE_Y; y++) {
+                    boolean tunnel = scenario == Scenario.DEEP_CAVE && y >= CAVE_Y - 1 && y <= CAVE_Y + 3;
+                    if (!tunnel) {
+                        level.setBlock(x, y, z, stone);
+                    }
+                }
+                level.setBlock(x, SURFACE_Y, z, grass);
+                int top = SURFACE_Y;
+
+                if (scenario == Scenario.FOREST && random.nextInt(12) == 0) {
+                    for (int y = SURFACE_Y + 1; y <= SURFACE_Y + 6; y++) {
+                        level.setBlock(x, y, z, log);
+                    }
+                    top = SURFACE_Y + 6;
+                }
+                level.heights[column(x, z)] = (short) (top + 1);
+            }
+        }
+
+        level.indexLogs(generated);
+        return level;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Position where mobs would stand in this scenario.
+     */
+    public int spawnY() {
+        return scenario == Scenario.DEEP_CAVE ? CAVE_Y : SURFACE_Y + 1;
+    }
+
+    private void setBlock(int x, int y, int z, BlockState state) {
+        LevelChunkSection[] sections = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        sections[(y - MIN_Y) >> 4].setBlockState(x & 15, y & 15, z & 15, state, false);
+    }
+
+    private static int column(int x, int z) {
+        return (z + SIZE / 2) * SIZE + x + SIZE / 2;
+    }
+
+    @Override
+    protected int heightmap(Heightmap.Types type, int x, int z) {
+        int half = SIZE / 2;
+        if (x < -half || x >= half || z < -half || z >= half) {
+            return MIN_Y;
+        }
+        return heights[column(x, z)];
+    }
+
+    @Override
+    public LevelChunkSection[] getSections(int chunkX, int chunkZ) {
+        return chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    @Override
+    public Iterable<Structure> getReferences(int chunkX, int chunkZ) {
+        return chunks.containsKey(ChunkPos.asLong(chunkX, chunkZ)) ? references : null;
+    }
+
+    @Override
+    public boolean isStructureAt(BlockPos pos, Structure structure) {
+        return references.contains(structure);
+    }
+
+    @Override
+    public int getHeight() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return MIN_Y;
+    }
+}
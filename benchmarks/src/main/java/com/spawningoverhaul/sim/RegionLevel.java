@@ -0,0 +1,459 @@
+package com.spawningoverhaul.sim;
+
+import com.mojang.serialization.Codec;
+import com.spawningoverhaul.benchmark.HeadlessLevel;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.storage.RegionFile;
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Headless level holding a saved dimension, loaded from its region files (.mca).
+ *
+ * Only fully generated chunks saved by the running game version are loaded: older chunks would
+ * need the data fixers, and partially generated ones have no final terrain. Alongside the block
+ * sections it keeps what the spawn probes read from a live level:
+ * - WORLD_SURFACE and MOTION_BLOCKING heights per column, computed from the blocks
+ *   (other heightmaps are answered with MOTION_BLOCKING)
+ * - Biomes per 4x4x4 cell; biomes missing from the vanilla registry (mods) read as plains
+ * - Bounding boxes of the structures each chunk references, for the structures in the vanilla registry
+ *
+ * The chunk data never changes after loading and is shared by every {@link #view} of the level.
+ * Each view has its own log index and caches, so each simulation thread works on its own view.
+ */
+public class RegionLevel extends HeadlessLevel {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final Codec<PalettedContainer<BlockState>> BLOCK_STATE_CODEC = PalettedContainer.codecRW(
+            Block.BLOCK_STATE_REGISTRY, BlockState.CODEC, PalettedContainer.Strategy.SECTION_STATES, AIR);
+    private static final Predicate<BlockState> MOTION_BLOCKING = Heightmap.Types.MOTION_BLOCKING.isOpaque();
+    private static final Predicate<BlockState> WORLD_SURFACE = Heightmap.Types.WORLD_SURFACE.isOpaque();
+
+    private final Long2ObjectOpenHashMap<SimChunk> chunks;
+    private final long[] chunkKeys;
+    // Biome per index stored in the chunks, null if not in the registry
+    private final Holder<Biome>[] biomes;
+    private final int minBuildHeight;
+    private final int height;
+    private final int skippedChunks;
+
+    private RegionLevel(ResourceKey<Level> dimension, Long2ObjectOpenHashMap<SimChunk> chunks, long[] chunkKeys,
+                        Holder<Biome>[] biomes, int minBuildHeight, int height, int skippedChunks) {
+        super(dimension);
+        this.chunks = chunks;
+        this.chunkKeys = chunkKeys;
+        this.biomes = biomes;
+        this.minBuildHeight = minBuildHeight;
+        this.height = height;
+        this.skippedChunks = skippedChunks;
+
+        List<ChunkPos> loaded = new ArrayList<>(chunkKeys.length);
+        for (long key : chunkKeys) {
+            loaded.add(new ChunkPos(key));
+        }
+        indexLogs(loaded);
+    }
+
+    /**
+     * Another level over the same chunks, with its own log index, caches and stats.
+     *
+     * @param worker Index of the thread the view is for; views of one level must use distinct indices
+     */
+    public RegionLevel view(int worker) {
+        return new RegionLevel(dimension("simulation_" + worker), chunks, chunkKeys, biomes,
+                minBuildHeight, height, skippedChunks);
+    }
+
+    /**
+     * Load the chunks of a square area from a region folder.
+     *
+     * @param regionDir Folder containing r.X.Z.mca files
+     * @param center Center chunk of the area
+     * @param radius Radius of the area in chunks
+     * @return The loaded level (possibly empty), used as the view of worker 0
+     */
+    public static RegionLevel load(Path regionDir, ChunkPos center, int radius) throws IOException {
+        Loader loader = new Loader();
+        RegionStorageInfo info = new RegionStorageInfo("simulation", Level.OVERWORLD, "chunk");
+
+        int minChunkX = center.x - radius;
+        int maxChunkX = center.x + radius;
+        int minChunkZ = center.z - radius;
+        int maxChunkZ = center.z + radius;
+        for (int regionX = minChunkX >> 5; regionX <= maxChunkX >> 5; regionX++) {
+            for (int regionZ = minChunkZ >> 5; regionZ <= maxChunkZ >> 5; regionZ++) {
+                Path file = regionDir.resolve("r." + regionX + "." + regionZ + ".mca");
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+
+                try (RegionFile region = new RegionFile(info, file, regionDir, false)) {
+                    for (int chunkX = Math.max(minChunkX, regionX << 5); chunkX <= Math.min(maxChunkX, (regionX << 5) + 31); chunkX++) {
+                        for (int chunkZ = Math.max(minChunkZ, regionZ << 5); chunkZ <= Math.min(maxChunkZ, (regionZ << 5) + 31); chunkZ++) {
+                            ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+                            if (!region.hasChunk(pos)) {
+                                continue;
+                            }
+                            try (DataInputStream in = region.getChunkDataInputStream(pos)) {
+                                if (in != null) {
+                                    loader.add(pos, NbtIo.read(in));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return loader.build();
+    }
+
+    /**
+     * Number of loaded chunks.
+     */
+    public int chunkCount() {
+        return chunkKeys.length;
+    }
+
+    /**
+     * Packed position (see {@link ChunkPos#asLong}) of a loaded chunk, in ascending key order.
+     */
+    public long chunkKey(int index) {
+        return chunkKeys[index];
+    }
+
+    /**
+     * Number of chunks present in the region files but not loaded (other game version or not fully generated).
+     */
+    public int skippedChunks() {
+        return skippedChunks;
+    }
+
+    @Override
+    protected int heightmap(Heightmap.Types type, int x, int z) {
+        SimChunk chunk = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        if (chunk == null) {
+            return minBuildHeight;
+        }
+        short[] heights = type == Heightmap.Types.WORLD_SURFACE ? chunk.surface : chunk.motionBlocking;
+        return heights[(z & 15) << 4 | (x & 15)];
+    }
+
+    @Override
+    public Holder<Biome> getNoiseBiome(int quartX, int quartY, int quartZ) {
+        SimChunk chunk = chunks.get(ChunkPos.asLong(quartX >> 2, quartZ >> 2));
+        if (chunk == null) {
+            return getUncachedNoiseBiome(quartX, quartY, quartZ);
+        }
+        int y = Mth.clamp(quartY << 2, minBuildHeight, minBuildHeight + height - 1) - minBuildHeight;
+        int index = chunk.biomes[y >> 4][(((y >> 2) & 3) << 2 | (quartZ & 3)) << 2 | (quartX & 3)];
+        Holder<Biome> biome = index >= 0 ? biomes[index] : null;
+        return biome != null ? biome : getUncachedNoiseBiome(quartX, quartY, quartZ);
+    }
+
+    @Override
+    public Iterable<Structure> getReferences(int chunkX, int chunkZ) {
+        SimChunk chunk = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        return chunk == null ? null : chunk.structures.keySet();
+    }
+
+    @Override
+    public boolean isStructureAt(BlockPos pos, Structure structure) {
+        SimChunk chunk = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        BoundingBox[] boxes = chunk == null ? null : chunk.structures.get(structure);
+        if (boxes == null) {
+            return false;
+        }
+        for (BoundingBox box : boxes) {
+            if (box.isInside(pos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve the biome and structure IDs read from the chunks against the level's registries.
+     * Called once by the loader, before the data is shared with any view.
+     */
+    private void resolve(List<ResourceKey<Biome>> biomeKeys) {
+        Registry<Biome> biomeRegistry = registryAccess().registryOrThrow(Registries.BIOME);
+        for (int i = 0; i < biomeKeys.size(); i++) {
+            biomes[i] = biomeRegistry.getHolder(biomeKeys.get(i)).orElse(null);
+        }
+
+        // References resolve to the boxes of the starts whose chunk was loaded
+        Registry<Structure> structureRegistry = registryAccess().registryOrThrow(Registries.STRUCTURE);
+        for (SimChunk chunk : chunks.values()) {
+            for (Map.Entry<String, long[]> entry : chunk.references.entrySet()) {
+                ResourceLocation location = ResourceLocation.tryParse(entry.getKey());
+                Structure structure = location == null ? null : structureRegistry.get(location);
+                if (structure == null) {
+                    continue;
+                }
+                List<BoundingBox> boxes = new ArrayList<>();
+                for (long startChunk : entry.getValue()) {
+                    SimChunk start = chunks.get(startChunk);
+                    BoundingBox box = start == null ? null : start.starts.get(entry.getKey());
+                    if (box != null) {
+                        boxes.add(box);
+                    }
+                }
+                chunk.structures.put(structure, boxes.toArray(new BoundingBox[0]));
+            }
+        }
+    }
+
+    @Override
+    public LevelChunkSection[] getSections(int chunkX, int chunkZ) {
+        SimChunk chunk = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+        return chunk == null ? null : chunk.sections;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minBuildHeight;
+    }
+
+    private static final class SimChunk {
+        final LevelChunkSection[] sections;
+        // Per section, 64 biome indices in PalettedContainer order (y, z, x)
+        final short[][] biomes;
+        final short[] surface;
+        final short[] motionBlocking;
+        // Structure ID -> bounding box of the structure starting in this chunk
+        final Map<String, BoundingBox> starts;
+        // Structure ID -> packed positions of the chunks holding its start
+        final Map<String, long[]> references;
+        // Referenced structure -> bounding boxes of its loaded starts
+        final Map<Structure, BoundingBox[]> structures = new IdentityHashMap<>();
+
+        SimChunk(LevelChunkSection[] sections, short[][] biomes, short[] surface, short[] motionBlocking,
+                 Map<String, BoundingBox> starts, Map<String, long[]> references) {
+            this.sections = sections;
+            this.biomes = biomes;
+            this.surface = surface;
+            this.motionBlocking = motionBlocking;
+            this.starts = starts;
+            this.references = references;
+        }
+    }
+
+    /**
+     * Decodes chunk NBT as written by ChunkSerializer.
+     */
+    private static final class Loader {
+        private final int dataVersion = SharedConstants.getCurrentVersion().getDataVersion().getVersion();
+        private final Long2ObjectOpenHashMap<SimChunk> chunks = new Long2ObjectOpenHashMap<>();
+        private final Object2IntOpenHashMap<String> biomeIds = new Object2IntOpenHashMap<>();
+        private final List<ResourceKey<Biome>> biomeKeys = new ArrayList<>();
+        private int minSectionY = Integer.MIN_VALUE;
+        private int sectionCount;
+        private int skipped;
+
+        void add(ChunkPos pos, CompoundTag tag) {
+            if (tag.getInt("DataVersion") != dataVersion || !"minecraft:full".equals(tag.getString("Status"))) {
+                skipped++;
+                return;
+            }
+
+            ListTag sectionTags = tag.getList("sections", Tag.TAG_COMPOUND);
+            if (minSectionY == Integer.MIN_VALUE) {
+                // The first chunk sets the dimension's height; the list also holds light-only sections
+                minSectionY = tag.getInt("yPos");
+                int maxSectionY = minSectionY;
+                for (int i = 0; i < sectionTags.size(); i++) {
+                    CompoundTag section = sectionTags.getCompound(i);
+                    if (section.contains("block_states", Tag.TAG_COMPOUND)) {
+                        maxSectionY = Math.max(maxSectionY, section.getByte("Y"));
+                    }
+                }
+                sectionCount = maxSectionY - minSectionY + 1;
+            } else if (tag.getInt("yPos") != minSectionY) {
+                skipped++;
+                return;
+            }
+
+            LevelChunkSection[] sections = new LevelChunkSection[sectionCount];
+            short[][] biomes = new short[sectionCount][];
+            for (int i = 0; i < sectionTags.size(); i++) {
+                CompoundTag section = sectionTags.getCompound(i);
+                int index = section.getByte("Y") - minSectionY;
+                if (index < 0 || index >= sectionCount || !section.contains("block_states", Tag.TAG_COMPOUND)) {
+                    continue;
+                }
+                PalettedContainer<BlockState> states = BLOCK_STATE_CODEC
+                        .parse(NbtOps.INSTANCE, section.getCompound("block_states")).result().orElse(null);
+                if (states == null) {
+                    skipped++;
+                    return;
+                }
+                sections[index] = new LevelChunkSection(states, null);
+                biomes[index] = readBiomes(section.getCompound("biomes"));
+            }
+            for (int i = 0; i < sectionCount; i++) {
+                if (sections[i] == null) {
+                    sections[i] = new LevelChunkSection(
+                            new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, AIR, PalettedContainer.Strategy.SECTION_STATES), null);
+                }
+                if (biomes[i] == null) {
+                    biomes[i] = new short[64];
+                    Arrays.fill(biomes[i], (short) -1);
+                }
+            }
+
+            short[] surface = new short[256];
+            short[] motionBlocking = new short[256];
+            for (int column = 0; column < 256; column++) {
+                surface[column] = (short) top(sections, column & 15, column >> 4, WORLD_SURFACE);
+                motionBlocking[column] = (short) top(sections, column & 15, column >> 4, MOTION_BLOCKING);
+            }
+
+            CompoundTag structures = tag.getCompound("structures");
+            chunks.put(pos.toLong(), new SimChunk(sections, biomes, surface, motionBlocking,
+                    readStarts(structures.getCompound("starts")), readReferences(structures.getCompound("References"))));
+        }
+
+        private int top(LevelChunkSection[] sections, int x, int z, Predicate<BlockState> predicate) {
+            int minY = minSectionY << 4;
+            for (int i = sections.length - 1; i >= 0; i--) {
+                LevelChunkSection section = sections[i];
+                if (section.hasOnlyAir() || !section.maybeHas(predicate)) {
+                    continue;
+                }
+                for (int y = 15; y >= 0; y--) {
+                    if (predicate.test(section.getBlockState(x, y, z))) {
+                        return minY + (i << 4) + y + 1;
+                    }
+                }
+            }
+            return minY;
+        }
+
+        private short[] readBiomes(CompoundTag tag) {
+            ListTag palette = tag.getList("palette", Tag.TAG_STRING);
+            short[] ids = new short[palette.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = (short) biomeId(palette.getString(i));
+            }
+
+            short[] cells = new short[64];
+            if (ids.length <= 1) {
+                Arrays.fill(cells, ids.length == 0 ? -1 : ids[0]);
+                return cells;
+            }
+
+            // Palette indices packed without spanning longs, with the bits needed for the palette size
+            long[] data = tag.getLongArray("data");
+            int bits = Mth.ceillog2(ids.length);
+            int perLong = 64 / bits;
+            long mask = (1L << bits) - 1;
+            for (int cell = 0; cell < 64; cell++) {
+                int word = cell / perLong;
+                int value = word < data.length ? (int) ((data[word] >>> ((cell % perLong) * bits)) & mask) : 0;
+                cells[cell] = value < ids.length ? ids[value] : ids[0];
+            }
+            return cells;
+        }
+
+        private int biomeId(String id) {
+            int existing = biomeIds.getOrDefault(id, -1);
+            if (existing >= 0) {
+                return existing;
+            }
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            if (location == null) {
+                return -1;
+            }
+            biomeKeys.add(ResourceKey.create(Registries.BIOME, location));
+            biomeIds.put(id, biomeKeys.size() - 1);
+            return biomeKeys.size() - 1;
+        }
+
+        private static Map<String, BoundingBox> readStarts(CompoundTag starts) {
+            Map<String, BoundingBox> boxes = new HashMap<>();
+            for (String id : starts.getAllKeys()) {
+                CompoundTag start = starts.getCompound(id);
+                if ("INVALID".equals(start.getString("id"))) {
+                    continue;
+                }
+                // The start's box encloses all of its pieces
+                BoundingBox box = null;
+                ListTag children = start.getList("Children", Tag.TAG_COMPOUND);
+                for (int i = 0; i < children.size(); i++) {
+                    int[] bb = children.getCompound(i).getIntArray("BB");
+                    if (bb.length != 6) {
+                        continue;
+                    }
+                    BoundingBox piece = new BoundingBox(bb[0], bb[1], bb[2], bb[3], bb[4], bb[5]);
+                    box = box == null ? piece : box.encapsulate(piece);
+                }
+                if (box != null) {
+                    boxes.put(id, box);
+                }
+            }
+            return boxes;
+        }
+
+        private static Map<String, long[]> readReferences(CompoundTag references) {
+            Map<String, long[]> referenced = new HashMap<>();
+            for (String id : references.getAllKeys()) {
+                referenced.put(id, references.getLongArray(id));
+            }
+            return referenced;
+        }
+
+        RegionLevel build() {
+            @SuppressWarnings("unchecked")
+            Holder<Biome>[] biomes = new Holder[biomeKeys.size()];
+            long[] chunkKeys = chunks.keySet().toLongArray();
+            Arrays.sort(chunkKeys);
+            int minBuildHeight = minSectionY == Integer.MIN_VALUE ? 0 : minSectionY << 4;
+
+            RegionLevel level = new RegionLevel(dimension("simulation_0"), chunks, chunkKeys, biomes,
+                    minBuildHeight, sectionCount << 4, skipped);
+            level.resolve(biomeKeys);
+            return level;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.spawningoverhaul.sim;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobSpawnType;
+
+/**
+ * Spawn context for a {@link RegionLevel}.
+ *
+ * Every probe runs its live code path against the loaded regions (sky and cave checks, forest scan
+ * per the configured mode, structure cache, biome settings). Only the time of day is set by the
+ * simulation, since a headless level never updates its sky darkness.
+ */
+public class SimSpawnContext extends SpawnContext {
+    private final boolean night;
+
+    public SimSpawnContext(RegionLevel level, BlockPos spawnPos, EntityType<?> entityType, boolean night) {
+        super(level, spawnPos, entityType, MobSpawnType.NATURAL);
+        this.night = night;
+    }
+
+    @Override
+    public boolean isNight() {
+        return night;
+    }
+}
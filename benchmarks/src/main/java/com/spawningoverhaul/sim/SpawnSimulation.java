@@ -0,0 +1,514 @@
+package com.spawningoverhaul.sim;
+
+import com.spawningoverhaul.benchmark.BenchmarkBootstrap;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.spawn.EarlySpawnGate;
+import com.spawningoverhaul.spawn.SpawnMultiplierCalculator;
+import com.spawningoverhaul.spawn.SpawnRoll;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless simulation that replays synthetic spawn attempts against saved regions.
+ *
+ * Loads the region files of a world into a {@link RegionLevel} and runs spawn decisions through
+ * {@link SpawnMultiplierCalculator#decide} on several threads, each on its own view of the level. Attempts pick positions the way
+ * vanilla picks pack origins: a random loaded chunk, a random column, and a Y between the bottom of
+ * the world and the surface; origins inside solid blocks are discarded, as vanilla does.
+ * Prints decisions per second and an acceptance heatmap per chunk, and can write the heatmap as CSV.
+ *
+ * With --packs, each attempt is a whole pack spread around its origin the way vanilla spreads one,
+ * run once with early spawn rejection off and once on ({@link EarlySpawnGate}) over the same packs.
+ * Prints the member acceptance of both runs and their difference in standard errors, estimated per
+ * pack since the members of a pack are kept or skipped together.
+ *
+ * Needs only the game jar and the region files (no client, server or network), so it doubles as a
+ * load test for the detectors. Run with: ./gradlew :benchmarks:simulate -PsimArgs="world --radius 32"
+ */
+public final class SpawnSimulation {
+
+    private static final String USAGE = """
+            Usage: SpawnSimulation <world or region folder> [options]
+              --dimension <overworld|the_nether|the_end>  Region folder inside a world folder (default: overworld)
+              --center <chunkX> <chunkZ>  Center of the simulated area (default: 0 0)
+              --radius <chunks>           Radius of the simulated area (default: 32)
+              --attempts <count>          Spawn attempts in total (default: 1000000)
+              --threads <count>           Worker threads (default: available processors)
+              --mob <id>                  Mob type (default: minecraft:zombie)
+              --seed <seed>               Random seed (default: 0)
+              --day                       Simulate daytime instead of night
+              --config <folder>           Folder containing spawningoverhaul.json5 (default: built-in defaults)
+              --csv <file>                Write the per-chunk heatmap as CSV
+              --packs                     Spread each attempt into a pack as vanilla does and compare member
+                                          acceptance with early spawn rejection off and on""";
+
+    // Darkest to brightest acceptance
+    private static final String SHADES = ".:-=+*#%@";
+    private static final int MAP_WIDTH = 64;
+
+    private SpawnSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Options options = Options.parse(args);
+        if (options == null) {
+            System.out.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        BenchmarkBootstrap.init(options.configDir);
+        EntityType<?> entityType = BuiltInRegistries.ENTITY_TYPE.getOptional(ResourceLocation.tryParse(options.mob)).orElse(null);
+        if (entityType == null) {
+            System.out.println("Unknown mob type: " + options.mob);
+            System.exit(2);
+            return;
+        }
+
+        long loadStart = System.nanoTime();
+        RegionLevel region = RegionLevel.load(options.regionDir, options.center, options.radius);
+        if (region.chunkCount() == 0) {
+            System.out.println("No chunks loaded from " + options.regionDir + " (" + region.skippedChunks()
+                    + " skipped: other game version or not fully generated)");
+            System.exit(1);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "Loaded %d chunks (%d skipped) in %.1f s%n",
+                region.chunkCount(), region.skippedChunks(), (System.nanoTime() - loadStart) / 1.0e9);
+
+        if (options.packs) {
+            comparePacks(region, entityType, options);
+            return;
+        }
+
+        Result result = run(region, entityType, options);
+        report(result, region, options);
+        if (options.csv != null) {
+            writeCsv(result, region, options.csv);
+            System.out.println("Heatmap written to " + options.csv);
+        }
+    }
+
+    private static Result run(RegionLevel region, EntityType<?> entityType, Options options)
+            throws InterruptedException, ExecutionException {
+        int chunks = region.chunkCount();
+        List<RegionLevel> levels = levels(region, options.threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int thread = 0; thread < options.threads; thread++) {
+                long attempts = options.attempts / options.threads + (thread < options.attempts % options.threads ? 1 : 0);
+                long seed = options.seed + thread;
+                RegionLevel level = levels.get(thread);
+                futures.add(executor.submit(() -> simulate(level, entityType, attempts, seed, !options.day)));
+            }
+
+            Result total = new Result(chunks);
+            for (Future<Result> future : futures) {
+                total.add(future.get());
+            }
+            total.nanos = System.nanoTime() - start;
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The log index and caches are filled lazily and not thread-safe, so each thread gets a level of its own
+    private static List<RegionLevel> levels(RegionLevel region, int threads) {
+        List<RegionLevel> levels = new ArrayList<>();
+        levels.add(region);
+        for (int thread = 1; thread < threads; thread++) {
+            levels.add(region.view(thread));
+        }
+        return levels;
+    }
+
+    private static void comparePacks(RegionLevel region, EntityType<?> entityType, Options options)
+            throws InterruptedException, ExecutionException {
+        List<RegionLevel> levels = levels(region, options.threads);
+        SpawningConfig config = BenchmarkBootstrap.config();
+        // The gate only runs in enabled dimensions
+        for (RegionLevel level : levels) {
+            String id = level.dimension().location().toString();
+            if (!config.enabledDimensions.contains(id)) {
+                config.enabledDimensions.add(id);
+            }
+        }
+
+        boolean earlySpawnRejection = config.earlySpawnRejection;
+        PackResult off;
+        PackResult on;
+        try {
+            config.earlySpawnRejection = false;
+            CompiledConfig.compile(config);
+            off = runPacks(levels, entityType, options);
+            config.earlySpawnRejection = true;
+            CompiledConfig.compile(config);
+            on = runPacks(levels, entityType, options);
+        } finally {
+            config.earlySpawnRejection = earlySpawnRejection;
+            CompiledConfig.compile(config);
+        }
+
+        System.out.println();
+        System.out.println("=== Pack Simulation: " + options.mob + (options.day ? " (day)" : " (night)") + " ===");
+        System.out.printf(Locale.ROOT, "Packs: %d (%d origins in solid blocks discarded), %d members in loaded chunks%n",
+                off.packs, off.solid, off.members);
+        reportPacks("Early rejection off", off);
+        reportPacks("Early rejection on ", on);
+        double difference = on.acceptance() - off.acceptance();
+        double error = Math.sqrt(on.variance() + off.variance());
+        System.out.printf(Locale.ROOT, "Difference: %+.4f%% (%.2f standard errors; beyond 3 means the gate changed spawn rates)%n",
+                difference * 100.0, error == 0.0 ? 0.0 : difference / error);
+    }
+
+    private static void reportPacks(String label, PackResult result) {
+        System.out.printf(Locale.ROOT, "%s: %.4f%% +- %.4f%% of members accepted, %.1f%% of packs rejected by the gate, %.0f packs/s%n",
+                label, result.acceptance() * 100.0, Math.sqrt(result.variance()) * 100.0,
+                result.packs == 0 ? 0.0 : result.rejected * 100.0 / result.packs, result.packs / (result.nanos / 1.0e9));
+    }
+
+    private static PackResult runPacks(List<RegionLevel> levels, EntityType<?> entityType, Options options)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            List<Future<PackResult>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int thread = 0; thread < options.threads; thread++) {
+                long packs = options.attempts / options.threads + (thread < options.attempts % options.threads ? 1 : 0);
+                long seed = options.seed + thread;
+                RegionLevel level = levels.get(thread);
+                futures.add(executor.submit(() -> simulatePacks(level, entityType, packs, seed, !options.day)));
+            }
+
+            PackResult total = new PackResult();
+            for (Future<PackResult> future : futures) {
+                total.add(future.get());
+            }
+            total.nanos = System.nanoTime() - start;
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Spread packs around random origins the way NaturalSpawner.spawnCategoryForPosition does
+     * (3 groups of up to 4 members, each member up to 5 blocks from the last, at the origin's Y)
+     * and decide every member in a loaded chunk. The layout only depends on the seed, so runs with
+     * the gate off and on see the same packs.
+     */
+    private static PackResult simulatePacks(RegionLevel region, EntityType<?> entityType, long packs, long seed, boolean night) {
+        RandomSource random = RandomSource.create(seed);
+        PackResult result = new PackResult();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        long[] members = new long[12];
+
+        for (long i = 0; i < packs; i++) {
+            int chunk = random.nextInt(region.chunkCount());
+            long key = region.chunkKey(chunk);
+            int originX = (ChunkPos.getX(key) << 4) + random.nextInt(16);
+            int originZ = (ChunkPos.getZ(key) << 4) + random.nextInt(16);
+            int y = Mth.randomBetweenInclusive(random, region.getMinBuildHeight(),
+                    region.getHeight(Heightmap.Types.WORLD_SURFACE, originX, originZ));
+
+            cursor.set(originX, y, originZ);
+            if (region.getBlockState(cursor).isRedstoneConductor(region, cursor)) {
+                result.solid++;
+                continue;
+            }
+
+            int count = 0;
+            for (int group = 0; group < 3; group++) {
+                int x = originX;
+                int z = originZ;
+                int size = Mth.ceil(random.nextFloat() * 4.0F);
+                for (int member = 0; member < size; member++) {
+                    x += random.nextInt(6) - random.nextInt(6);
+                    z += random.nextInt(6) - random.nextInt(6);
+                    if (region.hasChunk(x >> 4, z >> 4)) {
+                        members[count++] = BlockPos.asLong(x, y, z);
+                    }
+                }
+            }
+
+            // Every pack is its own tick, so the gate and member rolls of different packs are independent
+            region.setGameTime(i);
+            BlockPos origin = cursor.immutable();
+            int allowed = 0;
+            if (EarlySpawnGate.beginPack(region, origin)) {
+                long rollKey = SpawnRoll.key(region);
+                for (int member = 0; member < count; member++) {
+                    SimSpawnContext context = new SimSpawnContext(region, BlockPos.of(members[member]), entityType, night);
+                    if (SpawnMultiplierCalculator.decide(context, rollKey)) {
+                        allowed++;
+                    }
+                }
+            } else {
+                result.rejected++;
+            }
+            EarlySpawnGate.endPack();
+            result.addPack(count, allowed);
+        }
+        return result;
+    }
+
+    private static Result simulate(RegionLevel region, EntityType<?> entityType, long attempts, long seed, boolean night) {
+        RandomSource random = RandomSource.create(seed);
+        Result result = new Result(region.chunkCount());
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        for (long i = 0; i < attempts; i++) {
+            int chunk = random.nextInt(region.chunkCount());
+            long key = region.chunkKey(chunk);
+            int x = (ChunkPos.getX(key) << 4) + random.nextInt(16);
+            int z = (ChunkPos.getZ(key) << 4) + random.nextInt(16);
+            int y = Mth.randomBetweenInclusive(random, region.getMinBuildHeight(), region.getHeight(Heightmap.Types.WORLD_SURFACE, x, z));
+
+            // Vanilla discards pack origins inside solid blocks before any spawn check
+            cursor.set(x, y, z);
+            if (region.getBlockState(cursor).isRedstoneConductor(region, cursor)) {
+                result.solid++;
+                continue;
+            }
+
+            BlockPos pos = cursor.immutable();
+            result.attempts[chunk]++;
+            // Every attempt is its own tick, so repeated positions roll independently
+            if (SpawnMultiplierCalculator.decide(new SimSpawnContext(region, pos, entityType, night), SpawnRoll.key(seed, 0, i))) {
+                result.allowed[chunk]++;
+            }
+        }
+        return result;
+    }
+
+    private static void report(Result result, RegionLevel region, Options options) {
+        long attempts = result.totalAttempts();
+        long allowed = result.totalAllowed();
+        double seconds = result.nanos / 1.0e9;
+
+        System.out.println();
+        System.out.println("=== Spawn Simulation: " + options.mob + (options.day ? " (day)" : " (night)") + " ===");
+        System.out.printf(Locale.ROOT, "Decisions: %d (%d origins in solid blocks discarded)%n", attempts, result.solid);
+        System.out.printf(Locale.ROOT, "Allowed: %d (%.2f%%)%n", allowed, attempts == 0 ? 0.0 : allowed * 100.0 / attempts);
+        System.out.printf(Locale.ROOT, "Throughput: %.0f decisions/s on %d threads (%.0f per thread), %.1f s%n",
+                attempts / seconds, options.threads, attempts / seconds / options.threads, seconds);
+
+        // One character per block of chunks, so large areas still fit a terminal
+        int size = options.radius * 2 + 1;
+        int scale = Math.max(1, Mth.positiveCeilDiv(size, MAP_WIDTH));
+        int cells = Mth.positiveCeilDiv(size, scale);
+        long[] cellAttempts = new long[cells * cells];
+        long[] cellAllowed = new long[cells * cells];
+        for (int i = 0; i < region.chunkCount(); i++) {
+            long key = region.chunkKey(i);
+            int column = (ChunkPos.getX(key) - options.center.x + options.radius) / scale;
+            int row = (ChunkPos.getZ(key) - options.center.z + options.radius) / scale;
+            cellAttempts[row * cells + column] += result.attempts[i];
+            cellAllowed[row * cells + column] += result.allowed[i];
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Acceptance heatmap (north up, 1 char = %dx%d chunks, '%c' = 0%%, '%c' = 100%%, blank = no data):%n",
+                scale, scale, SHADES.charAt(0), SHADES.charAt(SHADES.length() - 1));
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < cells; row++) {
+            line.setLength(0);
+            for (int column = 0; column < cells; column++) {
+                long cellTotal = cellAttempts[row * cells + column];
+                if (cellTotal == 0) {
+                    line.append(' ');
+                } else {
+                    double acceptance = (double) cellAllowed[row * cells + column] / cellTotal;
+                    line.append(SHADES.charAt(Math.min(SHADES.length() - 1, (int) (acceptance * SHADES.length()))));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static void writeCsv(Result result, RegionLevel region, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("chunkX,chunkZ,attempts,allowed,acceptance");
+            for (int i = 0; i < region.chunkCount(); i++) {
+                long key = region.chunkKey(i);
+                long attempts = result.attempts[i];
+                out.printf(Locale.ROOT, "%d,%d,%d,%d,%.4f%n", ChunkPos.getX(key), ChunkPos.getZ(key), attempts,
+                        result.allowed[i], attempts == 0 ? 0.0 : (double) result.allowed[i] / attempts);
+            }
+        }
+    }
+
+    /**
+     * Decisions per loaded chunk (indexed like {@link RegionLevel#chunkKey}).
+     */
+    private static final class Result {
+        final long[] attempts;
+        final long[] allowed;
+        long solid;
+        long nanos;
+
+        Result(int chunks) {
+            attempts = new long[chunks];
+            allowed = new long[chunks];
+        }
+
+        void add(Result other) {
+            for (int i = 0; i < attempts.length; i++) {
+                attempts[i] += other.attempts[i];
+                allowed[i] += other.allowed[i];
+            }
+            solid += other.solid;
+        }
+
+        long totalAttempts() {
+            long total = 0;
+            for (long value : attempts) {
+                total += value;
+            }
+            return total;
+        }
+
+        long totalAllowed() {
+            long total = 0;
+            for (long value : allowed) {
+                total += value;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Member decisions of simulated packs, with the per-pack sums the standard error is estimated from.
+     */
+    private static final class PackResult {
+        long packs;
+        long solid;
+        long rejected;
+        long members;
+        long allowed;
+        double allowedSquares;
+        double memberSquares;
+        double products;
+        long nanos;
+
+        void addPack(int packMembers, int packAllowed) {
+            packs++;
+            members += packMembers;
+            allowed += packAllowed;
+            allowedSquares += (double) packAllowed * packAllowed;
+            memberSquares += (double) packMembers * packMembers;
+            products += (double) packAllowed * packMembers;
+        }
+
+        void add(PackResult other) {
+            packs += other.packs;
+            solid += other.solid;
+            rejected += other.rejected;
+            members += other.members;
+            allowed += other.allowed;
+            allowedSquares += other.allowedSquares;
+            memberSquares += other.memberSquares;
+            products += other.products;
+        }
+
+        double acceptance() {
+            return members == 0 ? 0.0 : (double) allowed / members;
+        }
+
+        // Ratio estimator variance over packs: sum of (allowed - r * members)^2 / members^2
+        double variance() {
+            if (members == 0) {
+                return 0.0;
+            }
+            double r = acceptance();
+            return (allowedSquares - 2.0 * r * products + r * r * memberSquares) / ((double) members * members);
+        }
+    }
+
+    private static final class Options {
+        Path regionDir;
+        ChunkPos center = new ChunkPos(0, 0);
+        int radius = 32;
+        long attempts = 1_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String mob = "minecraft:zombie";
+        long seed;
+        boolean day;
+        boolean packs;
+        Path configDir;
+        Path csv;
+
+        /**
+         * @return The options, or null if the arguments are invalid
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            String dimension = "overworld";
+            Path folder = null;
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--dimension" -> dimension = args[++i];
+                        case "--center" -> options.center = new ChunkPos(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                        case "--radius" -> options.radius = Integer.parseInt(args[++i]);
+                        case "--attempts" -> options.attempts = Long.parseLong(args[++i]);
+                        case "--threads" -> options.threads = Integer.parseInt(args[++i]);
+                        case "--mob" -> options.mob = args[++i];
+                        case "--seed" -> options.seed = Long.parseLong(args[++i]);
+                        case "--day" -> options.day = true;
+                        case "--packs" -> options.packs = true;
+                        case "--config" -> options.configDir = Path.of(args[++i]);
+                        case "--csv" -> options.csv = Path.of(args[++i]);
+                        default -> {
+                            if (args[i].startsWith("--") || folder != null) {
+                                return null;
+                            }
+                            folder = Path.of(args[i]);
+                        }
+                    }
+                }
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                return null;
+            }
+            if (folder == null || options.radius < 0 || options.attempts < 0 || options.threads < 1) {
+                return null;
+            }
+
+            // A world folder holds each dimension's regions in its own subfolder
+            Path worldRegions = switch (dimension) {
+                case "overworld" -> folder.resolve("region");
+                case "the_nether" -> folder.resolve("DIM-1").resolve("region");
+                case "the_end" -> folder.resolve("DIM1").resolve("region");
+                default -> null;
+            };
+            if (worldRegions == null) {
+                return null;
+            }
+            options.regionDir = Files.isDirectory(worldRegions) ? worldRegions : folder;
+            return options;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.spawningoverhaul;
 
 import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.platform.Services;
 import com.spawningoverhaul.spawn.rules.MobRuleRegistry;
 
 public class SpawningOverhaulCommon {
@@ -11,7 +12,13 @@ public class SpawningOverhaulCommon {
     private static Logger logger = new Logger() {
         @Override
         public void info(String message, Object... args) {
-            System.out.printf("[INFO] " + message + "%n", args);
+            System.out.printf("[INFO] " + message.replace("{}", "%s") + "%n", args);
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            System.err.println("[ERROR] " + message);
+            throwable.printStackTrace();
         }
     };
 
@@ -23,6 +30,20 @@ public class SpawningOverhaulCommon {
         return logger;
     }
 
+    // Loader-specific functionality - loaders provide the implementation before init
+    private static Services services;
+
+    public static void setServices(Services platformServices) {
+        services = platformServices;
+    }
+
+    /**
+     * @return The loader's services, or null outside a loader (offline tooling)
+     */
+    public static Services getServices() {
+        return services;
+    }
+
     public static void init() {
         logger.info("Initializing {} Common", MOD_NAME);
         SpawningConfig.load();
@@ -47,5 +68,10 @@ public class SpawningOverhaulCommon {
 
     public interface Logger {
         void info(String message, Object... args);
+
+        /**
+         * Log a failure with the throwable's stack trace.
+         */
+        void error(String message, Throwable throwable);
     }
 }
@@ -2,10 +2,11 @@ package com.spawningoverhaul.command;
 
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.context.CommandContext;
-import com.spawningoverhaul.config.SpawningConfig;
-import com.spawningoverhaul.spawn.LocationDetector;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.EnvironmentCache;
 import com.spawningoverhaul.spawn.SpawnContext;
 import com.spawningoverhaul.spawn.SpawnMultiplierCalculator;
+import com.spawningoverhaul.spawn.StructureCache;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
@@ -40,8 +41,8 @@ public class SpawnDebugCommand {
         // Get player position
         BlockPos pos = BlockPos.containing(source.getPosition());
 
-        // Get config
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
+        // Same snapshot the spawn path reads
+        CompiledConfig config = CompiledConfig.get();
 
         // Create a spawn context for a generic hostile mob (zombie) at this position
         SpawnContext spawnContext = new SpawnContext(serverLevel, pos, EntityType.ZOMBIE, MobSpawnType.NATURAL);
@@ -80,25 +81,24 @@ public class SpawnDebugCommand {
         double caveContribution = 0.0;
         if (spawnContext.isInCave()) {
             double depth = spawnContext.getCaveDepth();
-            double depthRatio = (depth - 1.0) / 4.0;
-            caveContribution = config.minCaveMultiplier + (config.maxCaveMultiplier - config.minCaveMultiplier) * depthRatio;
+            caveContribution = SpawnMultiplierCalculator.caveMultiplier(config, depth);
             double finalCaveContribution = caveContribution;
             double finalDepth = depth;
             source.sendSuccess(() -> Component.literal("  §7Cave: §f" + String.format("%.2fx", finalCaveContribution) +
                 " §8(depth " + String.format("%.1f", finalDepth) + ", range: " +
-                String.format("%.1f-%.1f", config.minCaveMultiplier, config.maxCaveMultiplier) + "x)"), false);
+                String.format("%.1f-%.1f", config.minCaveMultiplier, config.minCaveMultiplier + config.caveMultiplierRange) + "x)"), false);
         }
 
         // Calculate forest contribution
         double forestContribution = 0.0;
         double forestDensity = spawnContext.getForestDensity();
         if (forestDensity > 0.0) {
-            forestContribution = config.minForestMultiplier + (config.maxForestMultiplier - config.minForestMultiplier) * forestDensity;
+            forestContribution = SpawnMultiplierCalculator.forestMultiplier(config, forestDensity);
             double finalForestContribution = forestContribution;
             double finalForestDensity = forestDensity;
             source.sendSuccess(() -> Component.literal("  §7Forest: §f" + String.format("%.2fx", finalForestContribution) +
                 " §8(density " + String.format("%.0f%%", finalForestDensity * 100.0) + ", range: " +
-                String.format("%.1f-%.1f", config.minForestMultiplier, config.maxForestMultiplier) + "x)"), false);
+                String.format("%.1f-%.1f", config.minForestMultiplier, config.minForestMultiplier + config.forestMultiplierRange) + "x)"), false);
         }
 
         // Show which multiplier is used
@@ -119,6 +119,14 @@ public class SpawnDebugCommand {
             source.sendSuccess(() -> Component.literal("  §7Structure: §f×" + config.dangerousStructureMultiplier), false);
         }
 
+        // Biome multiplier and hostile blacklist (applied on top)
+        if (config.enableBiomeModifiers) {
+            String biomeText = spawnContext.isHostileBlacklistedBiome()
+                    ? "§cHostile spawns blacklisted"
+                    : "§f×" + String.format("%.2f", spawnContext.getBiomeMultiplier());
+            source.sendSuccess(() -> Component.literal("  §7Biome: " + biomeText), false);
+        }
+
         source.sendSuccess(() -> Component.literal(""), false);
         source.sendSuccess(() -> Component.literal("§6Final Spawn Multiplier: §f" + String.format("%.2fx", multiplier)), false);
 
@@ -132,10 +140,26 @@ public class SpawnDebugCommand {
             source.sendSuccess(() -> Component.literal("§6Spawn Rate: §fNormal (100%)"), false);
         }
 
+        source.sendSuccess(() -> Component.literal(""), false);
+        source.sendSuccess(() -> Component.literal("§6Caches:"), false);
+        source.sendSuccess(() -> Component.literal("  §eStructure: §f" + formatCache(
+                StructureCache.size(serverLevel), config.structureCacheMaxChunks,
+                StructureCache.getHits(serverLevel), StructureCache.getMisses(serverLevel))), false);
+        EnvironmentCache environmentCache = EnvironmentCache.forLevel(serverLevel);
+        source.sendSuccess(() -> Component.literal("  §eEnvironment: §f" + formatCache(
+                environmentCache.size(), config.environmentCacheMaxChunks,
+                environmentCache.getHits(), environmentCache.getMisses())), false);
+
         return 1;
     }
 
     private static String formatBoolean(boolean value) {
         return value ? "§aYes" : "§cNo";
     }
+
+    private static String formatCache(int size, int maxSize, long hits, long misses) {
+        long lookups = hits + misses;
+        double hitRate = lookups == 0 ? 0.0 : hits * 100.0 / lookups;
+        return size + "/" + maxSize + " chunks §8(" + hits + " hits, " + misses + " misses, " + String.format("%.1f%%", hitRate) + " hit rate)";
+    }
 }
@@ -0,0 +1,157 @@
+package com.spawningoverhaul.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnProbe;
+import com.spawningoverhaul.spawn.stats.SpawnStats;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+
+/**
+ * Profiling command showing spawn hot-path counters and latencies per dimension.
+ * Usage:
+ *   /spawnstats [dimension]       - totals since the last reset
+ *   /spawnstats rate [dimension]  - rates since the previous rate view
+ *   /spawnstats reset             - clear all dimensions
+ */
+public class SpawnStatsCommand {
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("spawnstats")
+                .requires(source -> source.hasPermission(2)) // Requires OP level 2
+                .executes(context -> showTotals(context.getSource(), context.getSource().getLevel()))
+                .then(Commands.argument("dimension", DimensionArgument.dimension())
+                    .executes(context -> showTotals(context.getSource(), dimension(context))))
+                .then(Commands.literal("rate")
+                    .executes(context -> showRates(context.getSource(), context.getSource().getLevel()))
+                    .then(Commands.argument("dimension", DimensionArgument.dimension())
+                        .executes(context -> showRates(context.getSource(), dimension(context)))))
+                .then(Commands.literal("reset")
+                    .executes(SpawnStatsCommand::reset))
+        );
+    }
+
+    private static ServerLevel dimension(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        return DimensionArgument.getDimension(context, "dimension");
+    }
+
+    private static int showTotals(CommandSourceStack source, ServerLevel level) {
+        DimensionStats stats = SpawnStats.forLevel(level);
+        long attempts = stats.get(SpawnCounter.ATTEMPTS);
+
+        source.sendSuccess(() -> Component.literal("§6=== Spawn Stats: " + level.dimension().location() + " ==="), false);
+        source.sendSuccess(() -> Component.literal("§6Decisions:"), false);
+        for (SpawnCounter counter : new SpawnCounter[]{SpawnCounter.ATTEMPTS, SpawnCounter.ALLOWED,
+                SpawnCounter.DENIED_ZERO_MULTIPLIER, SpawnCounter.DENIED_ROLL, SpawnCounter.DENIED_BIOME}) {
+            long value = stats.get(counter);
+            String share = counter == SpawnCounter.ATTEMPTS ? "" : " §8(" + formatPercent(value, attempts) + ")";
+            source.sendSuccess(() -> Component.literal("  §e" + counter.getLabel() + ": §f" + value + share), false);
+        }
+
+        source.sendSuccess(() -> Component.literal("§6Probes avoided (bounds / batch sharing):"), false);
+        for (SpawnCounter counter : new SpawnCounter[]{SpawnCounter.FOREST_SCAN_SKIPPED, SpawnCounter.STRUCTURE_LOOKUP_SKIPPED,
+                SpawnCounter.BATCH_PROBE_SHARED}) {
+            long value = stats.get(counter);
+            source.sendSuccess(() -> Component.literal("  §e" + counter.getLabel() + ": §f" + value
+                    + " §8(" + formatPercent(value, attempts) + ")"), false);
+        }
+
+        long packs = stats.get(SpawnCounter.EARLY_GATE_PASSED) + stats.get(SpawnCounter.EARLY_GATE_REJECTED);
+        if (packs > 0) {
+            source.sendSuccess(() -> Component.literal("§6Early gate:"), false);
+            for (SpawnCounter counter : new SpawnCounter[]{SpawnCounter.EARLY_GATE_PASSED, SpawnCounter.EARLY_GATE_REJECTED}) {
+                long value = stats.get(counter);
+                source.sendSuccess(() -> Component.literal("  §e" + counter.getLabel() + ": §f" + value
+                        + " §8(" + formatPercent(value, packs) + ")"), false);
+            }
+        }
+
+        source.sendSuccess(() -> Component.literal("§6Cache hit rates:"), false);
+        source.sendSuccess(() -> Component.literal("  §eStructure: §f" + formatHitRate(
+                stats.get(SpawnCounter.STRUCTURE_CACHE_HIT), stats.get(SpawnCounter.STRUCTURE_CACHE_MISS))), false);
+        source.sendSuccess(() -> Component.literal("  §eEnvironment: §f" + formatHitRate(
+                stats.get(SpawnCounter.ENVIRONMENT_CACHE_HIT), stats.get(SpawnCounter.ENVIRONMENT_CACHE_MISS))), false);
+        source.sendSuccess(() -> Component.literal("  §ePrecomputed grid: §f" + formatHitRate(
+                stats.get(SpawnCounter.PRECOMPUTE_HIT), stats.get(SpawnCounter.PRECOMPUTE_MISS))), false);
+
+        source.sendSuccess(() -> Component.literal("§6Latency §8(mean / p50 / p99, total):"), false);
+        for (SpawnProbe probe : SpawnProbe.values()) {
+            long samples = stats.getSamples(probe);
+            if (samples == 0) {
+                source.sendSuccess(() -> Component.literal("  §e" + probe.getLabel() + ": §8no samples"), false);
+                continue;
+            }
+            long totalNanos = stats.getTotalNanos(probe);
+            source.sendSuccess(() -> Component.literal("  §e" + probe.getLabel() + ": §f"
+                    + formatNanos(totalNanos / samples) + " / "
+                    + formatNanos(stats.getPercentileNanos(probe, 0.50)) + " / "
+                    + formatNanos(stats.getPercentileNanos(probe, 0.99))
+                    + " §8(" + samples + " samples, " + String.format("%.1f ms", totalNanos / 1_000_000.0) + ")"), false);
+        }
+
+        return 1;
+    }
+
+    private static int showRates(CommandSourceStack source, ServerLevel level) {
+        DimensionStats stats = SpawnStats.forLevel(level);
+        DimensionStats.Snapshot previous = stats.rollInterval();
+        double seconds = (System.nanoTime() - previous.nanoTime()) / 1_000_000_000.0;
+        if (seconds <= 0.0) {
+            source.sendFailure(Component.literal("Interval too short, run the command again"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("§6=== Spawn Rates: " + level.dimension().location()
+                + " §8(last " + String.format("%.1f", seconds) + "s)§6 ==="), false);
+        for (SpawnCounter counter : SpawnCounter.values()) {
+            long delta = stats.get(counter) - previous.get(counter);
+            source.sendSuccess(() -> Component.literal("  §e" + counter.getLabel() + ": §f"
+                    + String.format("%.1f/s", delta / seconds) + " §8(" + delta + ")"), false);
+        }
+
+        source.sendSuccess(() -> Component.literal("§6Time spent §8(ms per second, mean):"), false);
+        for (SpawnProbe probe : SpawnProbe.values()) {
+            long samples = stats.getSamples(probe) - previous.getSamples(probe);
+            long nanos = stats.getTotalNanos(probe) - previous.getTotalNanos(probe);
+            String mean = samples == 0 ? "-" : formatNanos(nanos / samples);
+            source.sendSuccess(() -> Component.literal("  §e" + probe.getLabel() + ": §f"
+                    + String.format("%.3f ms/s", nanos / 1_000_000.0 / seconds) + " §8(" + mean + ")"), false);
+        }
+
+        return 1;
+    }
+
+    private static int reset(CommandContext<CommandSourceStack> context) {
+        SpawnStats.resetAll();
+        context.getSource().sendSuccess(() -> Component.literal("§aSpawn stats reset for all dimensions"), true);
+        return 1;
+    }
+
+    private static String formatPercent(long value, long total) {
+        return String.format("%.1f%%", total == 0 ? 0.0 : value * 100.0 / total);
+    }
+
+    private static String formatHitRate(long hits, long misses) {
+        return formatPercent(hits, hits + misses) + " §8(" + hits + " hits, " + misses + " misses)";
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            return ">4.6s";
+        }
+        if (nanos < 10_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 10_000_000) {
+            return String.format("%.1fµs", nanos / 1_000.0);
+        }
+        return String.format("%.1fms", nanos / 1_000_000.0);
+    }
+}
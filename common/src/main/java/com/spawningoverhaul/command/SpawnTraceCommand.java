@@ -0,0 +1,150 @@
+package com.spawningoverhaul.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnTrace;
+import com.spawningoverhaul.spawn.stats.TraceExport;
+import net.minecraft.Util;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Command to inspect and export the spawn decision trace of a dimension.
+ * Usage:
+ *   /spawntrace [dimension]                    - outcome counts and the latest decisions
+ *   /spawntrace dump csv|binary [dimension]    - write the trace to spawningoverhaul/traces/
+ *   /spawntrace clear                          - drop the traces of all dimensions
+ */
+public class SpawnTraceCommand {
+
+    private static final int LATEST = 5;
+
+    private enum Format {
+        CSV("csv"),
+        BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("spawntrace")
+                .requires(source -> source.hasPermission(2)) // Requires OP level 2
+                .executes(context -> show(context.getSource(), context.getSource().getLevel()))
+                .then(Commands.argument("dimension", DimensionArgument.dimension())
+                    .executes(context -> show(context.getSource(), dimension(context))))
+                .then(Commands.literal("dump")
+                    .then(dumpFormat(Format.CSV))
+                    .then(dumpFormat(Format.BINARY)))
+                .then(Commands.literal("clear")
+                    .executes(SpawnTraceCommand::clear))
+        );
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> dumpFormat(Format format) {
+        return Commands.literal(format.name().toLowerCase(Locale.ROOT))
+            .executes(context -> dump(context.getSource(), context.getSource().getLevel(), format))
+            .then(Commands.argument("dimension", DimensionArgument.dimension())
+                .executes(context -> dump(context.getSource(), dimension(context), format)));
+    }
+
+    private static ServerLevel dimension(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        return DimensionArgument.getDimension(context, "dimension");
+    }
+
+    private static int show(CommandSourceStack source, ServerLevel level) {
+        SpawnTrace trace = SpawnTrace.forLevel(level);
+        List<SpawnTrace.Entry> entries = trace.snapshot();
+        long recorded = trace.recorded();
+
+        source.sendSuccess(() -> Component.literal("§6=== Spawn Trace: " + level.dimension().location() + " ==="), false);
+        source.sendSuccess(() -> Component.literal("§eBuffered: §f" + entries.size() + " §8(of " + recorded
+                + " recorded, capacity " + SpawnTrace.CAPACITY + ")"), false);
+        if (entries.isEmpty()) {
+            return 1;
+        }
+
+        Map<SpawnCounter, Integer> outcomes = new EnumMap<>(SpawnCounter.class);
+        for (SpawnTrace.Entry entry : entries) {
+            outcomes.merge(entry.outcome(), 1, Integer::sum);
+        }
+        source.sendSuccess(() -> Component.literal("§6Outcomes:"), false);
+        for (Map.Entry<SpawnCounter, Integer> outcome : outcomes.entrySet()) {
+            source.sendSuccess(() -> Component.literal("  §e" + outcome.getKey().getLabel() + ": §f" + outcome.getValue()
+                    + " §8(" + String.format("%.1f%%", outcome.getValue() * 100.0 / entries.size()) + ")"), false);
+        }
+
+        source.sendSuccess(() -> Component.literal("§6Latest:"), false);
+        for (SpawnTrace.Entry entry : entries.subList(Math.max(0, entries.size() - LATEST), entries.size())) {
+            BlockPos pos = BlockPos.of(entry.pos());
+            source.sendSuccess(() -> Component.literal("  §7" + pos.getX() + ", " + pos.getY() + ", " + pos.getZ()
+                    + " §f" + entry.entityTypeName() + " §e" + entry.outcome().getLabel()
+                    + " §8(env " + formatFactor(entry.environment()) + ", structure " + formatFactor(entry.structure())
+                    + ", mob " + formatFactor(entry.mob()) + ", biome " + formatFactor(entry.biome())
+                    + " = " + formatFactor(entry.multiplier()) + ")"), false);
+        }
+
+        return 1;
+    }
+
+    private static int dump(CommandSourceStack source, ServerLevel level, Format format) {
+        List<SpawnTrace.Entry> entries = SpawnTrace.forLevel(level).snapshot();
+        if (entries.isEmpty()) {
+            source.sendFailure(Component.literal("No spawn decisions traced in " + level.dimension().location()));
+            return 0;
+        }
+
+        MinecraftServer server = source.getServer();
+        Path file = server.getServerDirectory().resolve("spawningoverhaul").resolve("traces")
+                .resolve("trace-" + level.dimension().location().toDebugFileName() + "-"
+                        + Util.getFilenameFormattedDateTime() + "." + format.extension);
+
+        // The snapshot is already taken; writing can take a while for large traces, so keep it off the main thread
+        CompletableFuture.runAsync(() -> {
+            try {
+                if (format == Format.CSV) {
+                    TraceExport.writeCsv(file, entries);
+                } else {
+                    TraceExport.writeBinary(file, entries);
+                }
+                server.execute(() -> source.sendSuccess(() -> Component.literal("§aWrote " + entries.size()
+                        + " spawn decisions to " + server.getServerDirectory().relativize(file)), true));
+            } catch (IOException e) {
+                server.execute(() -> source.sendFailure(Component.literal("Failed to write spawn trace: " + e.getMessage())));
+            }
+        }, Util.ioPool());
+
+        source.sendSuccess(() -> Component.literal("§7Writing " + entries.size() + " spawn decisions..."), false);
+        return entries.size();
+    }
+
+    private static int clear(CommandContext<CommandSourceStack> context) {
+        SpawnTrace.clearAll();
+        context.getSource().sendSuccess(() -> Component.literal("§aSpawn traces cleared for all dimensions"), true);
+        return 1;
+    }
+
+    private static String formatFactor(float value) {
+        return Float.isNaN(value) ? "-" : String.format("%.2fx", value);
+    }
+}
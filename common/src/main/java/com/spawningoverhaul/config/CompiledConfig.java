@@ -0,0 +1,279 @@
+package com.spawningoverhaul.config;
+
+import com.spawningoverhaul.SpawningOverhaulCommon;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of {@link SpawningConfig} compiled for the spawn hot path.
+ * String IDs are resolved to registry keys and entity types, and derived values
+ * (reference maximum, lerp ranges) are computed once instead of on every spawn attempt.
+ *
+ * A new snapshot is compiled and published atomically whenever the config is loaded or saved
+ * and when a server starts, so a spawn attempt always sees one consistent config.
+ */
+public final class CompiledConfig {
+
+    private static volatile CompiledConfig current;
+    // Fallbacks for settings the config file sets to values the spawn math cannot use
+    private static final SpawningConfig DEFAULTS = new SpawningConfig();
+
+    // General
+    public final boolean recordSpawnTimings;
+    public final boolean recordSpawnTrace;
+    public final boolean enableImmersiveSpawning;
+    public final boolean earlySpawnRejection;
+
+    // Environment multipliers
+    public final double baseMultiplier;
+    public final double minCaveMultiplier;
+    public final double caveMultiplierRange;
+    public final double minForestMultiplier;
+    public final double forestMultiplierRange;
+    // Highest value the forest contribution can take at any density
+    public final double forestMultiplierUpperBound;
+    public final double dangerousStructureMultiplier;
+    public final boolean enableStructureModifications;
+    public final boolean enableBiomeModifiers;
+    // Highest configured biome multiplier (at least 1.0, the default for unlisted biomes; 1.0 when disabled)
+    public final double biomeMultiplierUpperBound;
+    // Multiplier that maps to 100% acceptance (at least 1.0)
+    public final double referenceMax;
+
+    // Detection
+    public final int denseForestLogThreshold;
+    public final int denseForestScanRadius;
+    public final boolean skyLightCaveDetection;
+    public final ForestScanMode forestScanMode;
+    public final int forestSampleBudget;
+    public final boolean enableEnvironmentCache;
+    public final int environmentCacheMaxChunks;
+    public final int structureCacheMaxChunks;
+    public final boolean enableEnvironmentPrecompute;
+    public final int precomputeThreads;
+    public final int precomputeRadiusChunks;
+    public final boolean persistSpawnEnvironment;
+
+    // Mob rules
+    public final boolean spiderOnlyInCave;
+    public final boolean disableCreeperNearStructure;
+
+    // Resolved IDs (ResourceKeys are interned, so identity sets are exact)
+    private final Set<ResourceKey<Level>> enabledDimensions;
+    private final Set<ResourceKey<Structure>> additionalDangerousStructures;
+    private final Set<ResourceKey<Structure>> additionalSafeStructures;
+    private final Reference2DoubleOpenHashMap<ResourceKey<Biome>> biomeMultipliers;
+    private final Set<ResourceKey<Biome>> hostileBlacklistedBiomes;
+    private final Reference2DoubleOpenHashMap<EntityType<?>> mobMultipliers;
+
+    private CompiledConfig(SpawningConfig config) {
+        this.recordSpawnTimings = config.recordSpawnTimings;
+        this.recordSpawnTrace = config.recordSpawnTrace;
+        this.enableImmersiveSpawning = config.enableImmersiveSpawning;
+        this.earlySpawnRejection = config.earlySpawnRejection;
+
+        this.baseMultiplier = finite("baseMultiplier", config.baseMultiplier, DEFAULTS.baseMultiplier);
+        this.minCaveMultiplier = finite("minCaveMultiplier", config.minCaveMultiplier, DEFAULTS.minCaveMultiplier);
+        double maxCaveMultiplier = finite("maxCaveMultiplier", config.maxCaveMultiplier, DEFAULTS.maxCaveMultiplier);
+        this.caveMultiplierRange = maxCaveMultiplier - minCaveMultiplier;
+        this.minForestMultiplier = finite("minForestMultiplier", config.minForestMultiplier, DEFAULTS.minForestMultiplier);
+        double maxForestMultiplier = finite("maxForestMultiplier", config.maxForestMultiplier, DEFAULTS.maxForestMultiplier);
+        this.forestMultiplierRange = maxForestMultiplier - minForestMultiplier;
+        this.forestMultiplierUpperBound = Math.max(minForestMultiplier, maxForestMultiplier);
+        this.dangerousStructureMultiplier = finite("dangerousStructureMultiplier", config.dangerousStructureMultiplier,
+                DEFAULTS.dangerousStructureMultiplier);
+        this.enableStructureModifications = config.enableStructureModifications;
+        this.enableBiomeModifiers = config.enableBiomeModifiers;
+        this.referenceMax = Math.max(1.0, Math.max(maxCaveMultiplier, Math.max(maxForestMultiplier, dangerousStructureMultiplier)));
+
+        this.denseForestLogThreshold = config.denseForestLogThreshold;
+        this.denseForestScanRadius = config.denseForestScanRadius;
+        this.skyLightCaveDetection = config.skyLightCaveDetection;
+        this.forestScanMode = config.forestScanMode;
+        this.forestSampleBudget = config.forestSampleBudget;
+        this.enableEnvironmentCache = config.enableEnvironmentCache;
+        this.environmentCacheMaxChunks = config.environmentCacheMaxChunks;
+        this.structureCacheMaxChunks = config.structureCacheMaxChunks;
+        this.enableEnvironmentPrecompute = config.enableEnvironmentPrecompute;
+        this.precomputeThreads = Math.max(1, config.precomputeThreads);
+        this.precomputeRadiusChunks = Math.max(0, config.precomputeRadiusChunks);
+        this.persistSpawnEnvironment = config.persistSpawnEnvironment;
+
+        this.spiderOnlyInCave = config.spiderOnlyInCave;
+        this.disableCreeperNearStructure = config.disableCreeperNearStructure;
+
+        this.enabledDimensions = resolveKeys(Registries.DIMENSION, config.enabledDimensions);
+        this.additionalDangerousStructures = resolveKeys(Registries.STRUCTURE, config.additionalDangerousStructures);
+        this.additionalSafeStructures = resolveKeys(Registries.STRUCTURE, config.additionalSafeStructures);
+        this.biomeMultipliers = resolveBiomeMultipliers(config.biomeSettings.biomeMultipliers);
+        this.hostileBlacklistedBiomes = resolveKeys(Registries.BIOME, config.biomeSettings.hostileSpawnBlacklistedBiomes);
+        this.biomeMultiplierUpperBound = enableBiomeModifiers
+                ? biomeMultipliers.values().doubleStream().reduce(1.0, Math::max)
+                : 1.0;
+        this.mobMultipliers = resolveMobMultipliers(config.mobSpecificMultipliers, config.spawnRates);
+    }
+
+    /**
+     * Get the current snapshot, compiling one from the loaded config on first use.
+     */
+    public static CompiledConfig get() {
+        CompiledConfig compiled = current;
+        if (compiled == null) {
+            compiled = compile(SpawningConfig.HANDLER().instance());
+        }
+        return compiled;
+    }
+
+    /**
+     * Compile a snapshot from the config and publish it.
+     *
+     * @param config The config to compile
+     * @return The published snapshot
+     */
+    public static CompiledConfig compile(SpawningConfig config) {
+        CompiledConfig compiled = new CompiledConfig(config);
+        current = compiled;
+        return compiled;
+    }
+
+    /**
+     * Check whether the immersive spawning system should run in the given dimension.
+     */
+    public boolean isDimensionEnabled(ResourceKey<Level> dimension) {
+        return enabledDimensions.contains(dimension);
+    }
+
+    /**
+     * Structures added to the dangerous list in the config.
+     */
+    public Set<ResourceKey<Structure>> getAdditionalDangerousStructures() {
+        return additionalDangerousStructures;
+    }
+
+    /**
+     * Structures added to the safe list in the config.
+     */
+    public Set<ResourceKey<Structure>> getAdditionalSafeStructures() {
+        return additionalSafeStructures;
+    }
+
+    /**
+     * Biome multipliers from biomeSettings, by biome key.
+     */
+    public Map<ResourceKey<Biome>, Double> getBiomeMultipliers() {
+        return Collections.unmodifiableMap(biomeMultipliers);
+    }
+
+    /**
+     * Biomes where hostile mobs may not spawn, from biomeSettings.
+     */
+    public Set<ResourceKey<Biome>> getHostileBlacklistedBiomes() {
+        return hostileBlacklistedBiomes;
+    }
+
+    /**
+     * Configured multiplier for a mob type.
+     *
+     * @return The product of the mobSpecificMultipliers and spawnRates entries, or 1.0 if none is configured
+     */
+    public double getMobMultiplier(EntityType<?> entityType) {
+        return mobMultipliers.getDouble(entityType);
+    }
+
+    /**
+     * Mob types with a multiplier in mobSpecificMultipliers or spawnRates.
+     */
+    public Set<EntityType<?>> getConfiguredMobs() {
+        return Collections.unmodifiableSet(mobMultipliers.keySet());
+    }
+
+    private static <T> Set<ResourceKey<T>> resolveKeys(ResourceKey<? extends Registry<T>> registry, Collection<String> ids) {
+        Set<ResourceKey<T>> keys = new ReferenceOpenHashSet<>();
+        for (String id : ids) {
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            if (location == null) {
+                SpawningOverhaulCommon.getLogger().info("Ignoring invalid ID '{}' in config", id);
+                continue;
+            }
+            keys.add(ResourceKey.create(registry, location));
+        }
+        return keys;
+    }
+
+    private static Reference2DoubleOpenHashMap<ResourceKey<Biome>> resolveBiomeMultipliers(Map<String, Double> multipliers) {
+        Reference2DoubleOpenHashMap<ResourceKey<Biome>> resolved = new Reference2DoubleOpenHashMap<>();
+        resolved.defaultReturnValue(1.0);
+        for (Map.Entry<String, Double> entry : multipliers.entrySet()) {
+            ResourceLocation location = ResourceLocation.tryParse(entry.getKey());
+            if (location == null || entry.getValue() == null || !Double.isFinite(entry.getValue())) {
+                SpawningOverhaulCommon.getLogger().info("Ignoring invalid biome multiplier '{}' in config", entry.getKey());
+                continue;
+            }
+            resolved.put(ResourceKey.create(Registries.BIOME, location), entry.getValue().doubleValue());
+        }
+        return resolved;
+    }
+
+    private static Reference2DoubleOpenHashMap<EntityType<?>> resolveMobMultipliers(Map<String, Double> multipliers, SpawnRateConfig rates) {
+        Reference2DoubleOpenHashMap<EntityType<?>> resolved = new Reference2DoubleOpenHashMap<>();
+        resolved.defaultReturnValue(1.0);
+        for (Map.Entry<String, Double> entry : multipliers.entrySet()) {
+            ResourceLocation location = ResourceLocation.tryParse(entry.getKey());
+            if (location == null || entry.getValue() == null || !Double.isFinite(entry.getValue())) {
+                SpawningOverhaulCommon.getLogger().info("Ignoring invalid mob multiplier '{}' in config", entry.getKey());
+                continue;
+            }
+            // Unknown mobs (mod not installed or not registered yet) are skipped until the next compile
+            BuiltInRegistries.ENTITY_TYPE.getOptional(location)
+                    .ifPresent(type -> resolved.put(type, entry.getValue().doubleValue()));
+        }
+
+        // Per-mob rates stack with mobSpecificMultipliers; neutral rates are left out
+        applyRate(resolved, EntityType.ZOMBIE, rates.zombieSpawnRate);
+        applyRate(resolved, EntityType.SKELETON, rates.skeletonSpawnRate);
+        applyRate(resolved, EntityType.CREEPER, rates.creeperSpawnRate);
+        applyRate(resolved, EntityType.SPIDER, rates.spiderSpawnRate);
+        applyRate(resolved, EntityType.COW, rates.cowSpawnRate);
+        applyRate(resolved, EntityType.PIG, rates.pigSpawnRate);
+        applyRate(resolved, EntityType.SHEEP, rates.sheepSpawnRate);
+        applyRate(resolved, EntityType.CHICKEN, rates.chickenSpawnRate);
+        return resolved;
+    }
+
+    private static void applyRate(Reference2DoubleOpenHashMap<EntityType<?>> resolved, EntityType<?> type, double rate) {
+        if (rate == 1.0) {
+            return;
+        }
+        double multiplier = resolved.getDouble(type) * rate;
+        if (!Double.isFinite(multiplier)) {
+            SpawningOverhaulCommon.getLogger().info("Ignoring invalid spawn rate {} for '{}' in config", rate, BuiltInRegistries.ENTITY_TYPE.getKey(type));
+            return;
+        }
+        resolved.put(type, multiplier);
+    }
+
+    /**
+     * Replace a multiplier that is infinite or not a number (hand-edited config) with its default.
+     */
+    private static double finite(String name, double value, double fallback) {
+        if (Double.isFinite(value)) {
+            return value;
+        }
+        SpawningOverhaulCommon.getLogger().info("Invalid {} {} in config, using {}", name, value, fallback);
+        return fallback;
+    }
+}
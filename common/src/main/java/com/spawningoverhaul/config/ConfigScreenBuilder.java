@@ -1,14 +1,22 @@
 package com.spawningoverhaul.config;
 
+import dev.isxander.yacl3.api.YetAnotherConfigLib;
 import net.minecraft.client.gui.screens.Screen;
 
 /**
  * Shared config screen builder for both Fabric and NeoForge.
  * The screen is auto-generated from @AutoGen annotations in SpawningConfig.
+ * Saving goes through {@link SpawningConfig#save()} so the compiled config and caches are refreshed.
  */
 public class ConfigScreenBuilder {
 
     public static Screen createConfigScreen(Screen parent) {
-        return SpawningConfig.HANDLER().generateGui().generateScreen(parent);
+        YetAnotherConfigLib generated = SpawningConfig.HANDLER().generateGui();
+        return YetAnotherConfigLib.createBuilder()
+                .title(generated.title())
+                .categories(generated.categories())
+                .save(SpawningConfig::save)
+                .build()
+                .generateScreen(parent);
     }
 }
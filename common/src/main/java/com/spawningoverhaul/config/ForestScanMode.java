@@ -0,0 +1,45 @@
+package com.spawningoverhaul.config;
+
+import dev.isxander.yacl3.api.NameableEnum;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Strategy used by {@link com.spawningoverhaul.spawn.LocationDetector#getForestDensity}
+ * to count logs around a spawn position.
+ */
+public enum ForestScanMode implements NameableEnum {
+    /**
+     * Read every block in the scan cylinder on each spawn attempt.
+     */
+    FULL_SCAN,
+
+    /**
+     * Sum precomputed per-column log masks maintained by
+     * {@link com.spawningoverhaul.spawn.index.LogIndex}.
+     */
+    LOG_INDEX,
+
+    /**
+     * Estimate the log count from a fixed budget of stratified sample blocks
+     * with {@link com.spawningoverhaul.spawn.ForestSampler}.
+     */
+    SAMPLED,
+
+    /**
+     * Approximate the log count from summed-area tables built on the
+     * {@link com.spawningoverhaul.spawn.index.LogIndex}, at a cost independent of the scan radius.
+     */
+    SUMMED_AREA;
+
+    /**
+     * Whether chunks are summarized into the log index as they load.
+     */
+    public boolean usesLogIndex() {
+        return this == LOG_INDEX || this == SUMMED_AREA;
+    }
+
+    @Override
+    public Component getDisplayName() {
+        return Component.translatable("spawningoverhaul.forestScanMode." + name().toLowerCase());
+    }
+}
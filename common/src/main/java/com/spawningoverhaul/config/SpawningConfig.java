@@ -1,6 +1,7 @@
 package com.spawningoverhaul.config;
 
 import com.spawningoverhaul.SpawningOverhaulCommon;
+import com.spawningoverhaul.spawn.SpawnLifecycle;
 import dev.isxander.yacl3.api.Option;
 import dev.isxander.yacl3.api.controller.ControllerBuilder;
 import dev.isxander.yacl3.api.controller.StringControllerBuilder;
@@ -54,15 +55,25 @@ public class SpawningConfig {
     // ===== General Settings =====
 
     @AutoGen(category = "general")
-    @SerialEntry(comment = "Enable debugging")
+    @SerialEntry(comment = "Record spawn hot-path latencies for /spawnstats (counters are always recorded; timing adds a little overhead)")
     @TickBox
-    public boolean debugmode = false;
+    public boolean recordSpawnTimings = false;
+
+    @AutoGen(category = "general")
+    @SerialEntry(comment = "Keep the most recent spawn decisions per dimension in memory for /spawntrace")
+    @TickBox
+    public boolean recordSpawnTrace = true;
 
     @AutoGen(category = "general")
     @SerialEntry(comment = "Enable immersive spawning system")
     @TickBox
     public boolean enableImmersiveSpawning = true;
 
+    @AutoGen(category = "general")
+    @SerialEntry(comment = "Roll spawn acceptance once per pack before vanilla picks mob types and builds entities (saves server work, each mob keeps its odds but mobs of a pack are kept or skipped together)")
+    @TickBox
+    public boolean earlySpawnRejection = false;
+
     // ===== Dimension Whitelist =====
 
     @AutoGen(category = "dimensions")
@@ -107,6 +118,11 @@ public class SpawningConfig {
     @TickBox
     public boolean enableStructureModifications = true;
 
+    @AutoGen(category = "environment")
+    @SerialEntry(comment = "Apply biomeSettings: per-biome multipliers and the hostile spawn blacklist")
+    @TickBox
+    public boolean enableBiomeModifiers = false;
+
     // ===== Detection Settings =====
 
     @AutoGen(category = "detection")
@@ -119,6 +135,56 @@ public class SpawningConfig {
     @IntSlider(min = 5, max = 30, step = 1)
     public int denseForestScanRadius = 10;
 
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Use sky light (canSeeSky) for cave and outside detection instead of the MOTION_BLOCKING heightmap (glass and other see-through blocks then count as open sky)")
+    @TickBox
+    public boolean skyLightCaveDetection = false;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "How logs are counted for forest detection: FULL_SCAN reads every block, LOG_INDEX uses a per-chunk summary (identical results for loaded chunks), SAMPLED estimates from a fixed number of block reads, SUMMED_AREA approximates the count from summed-area tables (cost independent of the scan radius)")
+    @EnumCycler
+    public ForestScanMode forestScanMode = ForestScanMode.LOG_INDEX;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Number of blocks read per forest density estimate in SAMPLED mode (upper bound on block reads per spawn attempt)")
+    @IntSlider(min = 32, max = 256, step = 16)
+    public int forestSampleBudget = 96;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Share forest density and sky visibility results between spawn attempts in the same chunk")
+    @TickBox
+    public boolean enableEnvironmentCache = true;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Maximum number of chunks kept in the environment cache per dimension")
+    @IntSlider(min = 256, max = 16384, step = 256)
+    public int environmentCacheMaxChunks = 4096;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Maximum number of chunks kept in the structure cache per dimension (entries are dropped when chunks unload)")
+    @IntSlider(min = 1024, max = 65536, step = 1024)
+    public int structureCacheMaxChunks = 16384;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Precompute sky visibility and forest density around players on background threads (spawn checks fall back to live detection for chunks not ready yet). Forest density is evaluated per 4x4 column cell from a full log count, regardless of forestScanMode")
+    @TickBox
+    public boolean enableEnvironmentPrecompute = false;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Number of background threads used for environment precomputation")
+    @IntSlider(min = 1, max = 8, step = 1)
+    public int precomputeThreads = 1;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Radius in chunks around each player kept precomputed (natural spawns happen within 8 chunks)")
+    @IntSlider(min = 2, max = 8, step = 1)
+    public int precomputeRadiusChunks = 8;
+
+    @AutoGen(category = "detection")
+    @SerialEntry(comment = "Save precomputed environments and structure results with each chunk so they survive restarts (discarded when the mod version or detection settings change)")
+    @TickBox
+    public boolean persistSpawnEnvironment = true;
+
     // ===== Mob-Specific Rules =====
 
     @AutoGen(category = "mobs")
@@ -142,11 +208,18 @@ public class SpawningConfig {
     @SerialEntry(comment = "Mob-specific spawn multipliers (e.g., 'modid:mob_name' -> 2.0)")
     public Map<String, Double> mobSpecificMultipliers = new HashMap<>();
 
+    @SerialEntry(comment = "Biome multipliers and hostile spawn blacklist (biome IDs, e.g. 'minecraft:plains'), used when enableBiomeModifiers is on")
+    public BiomeSpawnConfig biomeSettings = new BiomeSpawnConfig();
+
+    @SerialEntry(comment = "Spawn rates of common vanilla mobs, stacked with mobSpecificMultipliers")
+    public SpawnRateConfig spawnRates = new SpawnRateConfig();
+
     // Methods
 
     /**
      * Check whether the immersive spawning system should run in the given dimension.
      * A dimension is active only if its ID is present in {@link #enabledDimensions}.
+     * Hot paths should use {@link CompiledConfig#isDimensionEnabled} instead.
      */
     public boolean isDimensionEnabled(ResourceKey<Level> dimension) {
         return enabledDimensions.contains(dimension.location().toString());
@@ -154,11 +227,14 @@ public class SpawningConfig {
 
     public static void load() {
         HANDLER().load();
+        CompiledConfig.compile(HANDLER().instance());
         SpawningOverhaulCommon.getLogger().info("Loaded configuration from {}", getConfigPath());
     }
 
     public static void save() {
         HANDLER().save();
+        CompiledConfig.compile(HANDLER().instance());
+        SpawnLifecycle.onConfigChanged();
         SpawningOverhaulCommon.getLogger().info("Saved configuration to {}", getConfigPath());
     }
 
@@ -1,5 +1,8 @@
 package com.spawningoverhaul.platform;
 
+import com.spawningoverhaul.spawn.persist.ChunkSpawnSummary;
+import net.minecraft.world.level.chunk.LevelChunk;
+
 import java.nio.file.Path;
 
 /**
@@ -21,4 +24,23 @@ public interface Services {
      * Get the loader name (e.g., "Fabric", "NeoForge").
      */
     String getLoaderName();
+
+    /**
+     * Get the version of the installed mod.
+     */
+    String getModVersion();
+
+    /**
+     * Get the spawn summary attached to a chunk.
+     *
+     * @return The summary, or null if the chunk has none
+     */
+    ChunkSpawnSummary getSpawnSummary(LevelChunk chunk);
+
+    /**
+     * Attach a spawn summary to a chunk, saved with the chunk.
+     *
+     * @param summary The summary, or null to remove it
+     */
+    void setSpawnSummary(LevelChunk chunk, ChunkSpawnSummary summary);
 }
@@ -0,0 +1,124 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Biome multipliers and the hostile spawn blacklist resolved against a biome registry.
+ * Built once per registry access and compiled config into dense arrays indexed by biome
+ * registry id, so a spawn check costs one biome lookup and an array read instead of
+ * string comparisons.
+ *
+ * The table is also discarded on datapack reload ({@link SpawnLifecycle#onDataPackReload}).
+ */
+public class BiomeModifiers {
+
+    private static volatile BiomeModifiers current;
+
+    private final RegistryAccess registryAccess;
+    private final CompiledConfig config;
+    private final Registry<Biome> registry;
+    // Biome id -> multiplier (1.0 for unlisted biomes)
+    private final double[] multipliers;
+    // Biome id -> hostile mobs may not spawn
+    private final boolean[] hostileBlacklisted;
+
+    private BiomeModifiers(RegistryAccess registryAccess, CompiledConfig config, Registry<Biome> registry,
+                           double[] multipliers, boolean[] hostileBlacklisted) {
+        this.registryAccess = registryAccess;
+        this.config = config;
+        this.registry = registry;
+        this.multipliers = multipliers;
+        this.hostileBlacklisted = hostileBlacklisted;
+    }
+
+    /**
+     * Get the table for a level, building it if the level's registries
+     * or the config changed since the last build.
+     *
+     * @param level The level
+     * @return The table
+     */
+    public static BiomeModifiers forLevel(Level level) {
+        BiomeModifiers modifiers = current;
+        CompiledConfig config = CompiledConfig.get();
+        RegistryAccess registryAccess = level.registryAccess();
+        if (modifiers == null || modifiers.registryAccess != registryAccess || modifiers.config != config) {
+            modifiers = build(registryAccess, config);
+            current = modifiers;
+        }
+        return modifiers;
+    }
+
+    /**
+     * Discard the table so it is rebuilt on next use.
+     */
+    public static void invalidate() {
+        current = null;
+    }
+
+    /**
+     * Registry id of the biome at a position.
+     *
+     * @return The id, or -1 if the biome is not registered
+     */
+    public int biomeId(Level level, BlockPos pos) {
+        return registry.getId(level.getBiome(pos).value());
+    }
+
+    /**
+     * Configured multiplier for a biome.
+     *
+     * @param biomeId Registry id from {@link #biomeId}
+     * @return The multiplier from biomeMultipliers, or 1.0 if none is configured
+     */
+    public double multiplier(int biomeId) {
+        return biomeId >= 0 && biomeId < multipliers.length ? multipliers[biomeId] : 1.0;
+    }
+
+    /**
+     * Check whether hostile mobs are blacklisted in a biome.
+     *
+     * @param biomeId Registry id from {@link #biomeId}
+     */
+    public boolean isHostileBlacklisted(int biomeId) {
+        return biomeId >= 0 && biomeId < hostileBlacklisted.length && hostileBlacklisted[biomeId];
+    }
+
+    private static BiomeModifiers build(RegistryAccess registryAccess, CompiledConfig config) {
+        Registry<Biome> registry = registryAccess.registryOrThrow(Registries.BIOME);
+        double[] multipliers = new double[registry.size()];
+        boolean[] hostileBlacklisted = new boolean[registry.size()];
+        Arrays.fill(multipliers, 1.0);
+
+        // Unknown biomes (mod not installed) are skipped
+        for (Map.Entry<ResourceKey<Biome>, Double> entry : config.getBiomeMultipliers().entrySet()) {
+            int id = idOf(registry, entry.getKey());
+            if (id >= 0) {
+                multipliers[id] = entry.getValue();
+            }
+        }
+        for (ResourceKey<Biome> key : config.getHostileBlacklistedBiomes()) {
+            int id = idOf(registry, key);
+            if (id >= 0) {
+                hostileBlacklisted[id] = true;
+            }
+        }
+        return new BiomeModifiers(registryAccess, config, registry, multipliers, hostileBlacklisted);
+    }
+
+    private static int idOf(Registry<Biome> registry, ResourceKey<Biome> key) {
+        Biome biome = registry.get(key);
+        int id = biome != null ? registry.getId(biome) : -1;
+        return id < registry.size() ? id : -1;
+    }
+}
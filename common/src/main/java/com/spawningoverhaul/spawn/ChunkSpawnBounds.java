@@ -0,0 +1,177 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.index.ChunkLogColumns;
+import com.spawningoverhaul.spawn.index.LogIndex;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.Arrays;
+
+/**
+ * Per-chunk memo of the highest environment multiplier any position in a chunk section can get.
+ * Used by {@link EarlySpawnGate} to skip most packs in low-multiplier sections (open plains at a
+ * 0.2 base multiplier) without evaluating a single probe. A pack's bound is the highest bound of
+ * the sections its members can reach.
+ *
+ * The bound is conservative, derived only from cheap chunk-level facts:
+ * - Cave: the highest cave multiplier over the section's Y range below the cave limit, since
+ *   any position there may lack sky access (the multiplier is linear in Y, so an end point is highest)
+ * - Forest: the forest upper bound if any chunk within scan reach has logs within the section's
+ *   Y band (per the {@link LogIndex}), otherwise nothing
+ * - Structure: the dangerous multiplier's effect if the chunk references any structure,
+ *   otherwise 1.0 (a chunk without references is never inside a structure)
+ *
+ * Entries are dropped on chunk unload and by log changes within scan reach.
+ * Not thread-safe: all access must happen on the level's ticking thread.
+ */
+public class ChunkSpawnBounds {
+
+    // ChunkPos (as Long) -> bound per section (NaN until computed)
+    private final Long2ObjectOpenHashMap<double[]> chunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Get the memo for a level, creating it on first use.
+     */
+    public static ChunkSpawnBounds forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).spawnBounds();
+    }
+
+    /**
+     * Highest environment multiplier (base, cave, forest and structure) possible at the Y level of
+     * a position within a horizontal distance of it. Biome multipliers are not included.
+     *
+     * @param level The level
+     * @param pos The center position
+     * @param reach Largest X or Z distance from the center, in blocks
+     * @return The bound, or Double.POSITIVE_INFINITY if a chunk in reach is not loaded
+     */
+    public double environmentUpperBound(Level level, BlockPos pos, int reach) {
+        int sectionIndex = level.getSectionIndex(pos.getY());
+        if (sectionIndex < 0 || sectionIndex >= level.getSectionsCount()) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double bound = 0.0;
+        for (int chunkX = (pos.getX() - reach) >> 4; chunkX <= (pos.getX() + reach) >> 4; chunkX++) {
+            for (int chunkZ = (pos.getZ() - reach) >> 4; chunkZ <= (pos.getZ() + reach) >> 4; chunkZ++) {
+                bound = Math.max(bound, sectionBound(level, chunkX, chunkZ, sectionIndex));
+            }
+        }
+        return bound;
+    }
+
+    private double sectionBound(Level level, int chunkX, int chunkZ, int sectionIndex) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        double[] sections = chunks.get(key);
+        if (sections == null) {
+            if (!level.hasChunk(chunkX, chunkZ)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            sections = new double[level.getSectionsCount()];
+            Arrays.fill(sections, Double.NaN);
+            chunks.put(key, sections);
+        }
+
+        double bound = sections[sectionIndex];
+        if (Double.isNaN(bound)) {
+            bound = computeBound(level, chunkX, chunkZ, level.getSectionYFromSectionIndex(sectionIndex));
+            sections[sectionIndex] = bound;
+        }
+        return bound;
+    }
+
+    private static double computeBound(Level level, int chunkX, int chunkZ, int sectionY) {
+        CompiledConfig config = CompiledConfig.get();
+        int bottom = sectionY << 4;
+        double environment = config.baseMultiplier;
+
+        if (bottom < LocationDetector.CAVE_MAX_Y) {
+            int top = Math.min(bottom + 15, LocationDetector.CAVE_MAX_Y - 1);
+            environment = Math.max(environment, Math.max(caveMultiplier(config, bottom), caveMultiplier(config, top)));
+        }
+
+        if (hasLogsInReach(level, chunkX, chunkZ, bottom, config.denseForestScanRadius)) {
+            environment = Math.max(environment, config.forestMultiplierUpperBound);
+        }
+
+        if (config.enableStructureModifications && hasStructureReferences(level, chunkX, chunkZ)) {
+            environment *= Math.max(1.0, config.dangerousStructureMultiplier);
+        }
+        return environment;
+    }
+
+    private static boolean hasStructureReferences(Level level, int chunkX, int chunkZ) {
+        if (level instanceof StructureCache.StructureSource source) {
+            Iterable<?> references = source.getReferences(chunkX, chunkZ);
+            return references != null && references.iterator().hasNext();
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        return chunk != null && !chunk.getAllReferences().isEmpty();
+    }
+
+    private static double caveMultiplier(CompiledConfig config, int y) {
+        return SpawnMultiplierCalculator.caveMultiplier(config, LocationDetector.getCaveDepth(y));
+    }
+
+    private static boolean hasLogsInReach(Level level, int chunkX, int chunkZ, int bottom, int radius) {
+        // Scan cylinders may be centered up to 2 blocks off the spawn position (cell sharing)
+        int reach = radius + 2;
+        int minSectionY = (bottom - LocationDetector.FOREST_SCAN_VERTICAL_RANGE) >> 4;
+        int maxSectionY = (bottom + 15 + LocationDetector.FOREST_SCAN_VERTICAL_RANGE) >> 4;
+        LogIndex index = LogIndex.forLevel(level);
+
+        for (int x = ((chunkX << 4) - reach) >> 4; x <= ((chunkX << 4) + 15 + reach) >> 4; x++) {
+            for (int z = ((chunkZ << 4) - reach) >> 4; z <= ((chunkZ << 4) + 15 + reach) >> 4; z++) {
+                ChunkLogColumns columns = index.getOrIndex(level, x, z);
+                if (columns == null) {
+                    continue;
+                }
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    if (columns.section(sectionY) != null) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidate bounds affected by a log being placed or removed.
+     */
+    public void onLogChanged(BlockPos pos) {
+        int reach = CompiledConfig.get().denseForestScanRadius + 2;
+        for (int chunkX = (pos.getX() - reach) >> 4; chunkX <= (pos.getX() + reach) >> 4; chunkX++) {
+            for (int chunkZ = (pos.getZ() - reach) >> 4; chunkZ <= (pos.getZ() + reach) >> 4; chunkZ++) {
+                chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    /**
+     * Invalidate bounds computed while a newly loaded chunk was missing (it may bring logs into reach).
+     */
+    public void onChunkLoaded(ChunkPos pos) {
+        int reachChunks = (CompiledConfig.get().denseForestScanRadius + 2 + 15) >> 4;
+        for (int chunkX = pos.x - reachChunks; chunkX <= pos.x + reachChunks; chunkX++) {
+            for (int chunkZ = pos.z - reachChunks; chunkZ <= pos.z + reachChunks; chunkZ++) {
+                chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    /**
+     * Forget a chunk that is being unloaded.
+     */
+    public void removeChunk(ChunkPos pos) {
+        chunks.remove(pos.toLong());
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+}
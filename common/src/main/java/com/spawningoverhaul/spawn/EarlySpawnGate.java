@@ -0,0 +1,137 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.rules.MobEvaluators;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnProbe;
+import com.spawningoverhaul.spawn.stats.SpawnStats;
+import com.spawningoverhaul.spawn.stats.SpawnTrace;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Optional early rejection of whole spawn packs, before vanilla picks mob types,
+ * builds entities or evaluates spawn rules.
+ *
+ * At the start of NaturalSpawner.spawnCategoryForPosition the pack is kept with probability q, the
+ * acceptance of the highest multiplier any member can get, before any probe runs. This skips most
+ * packs in low-multiplier sections such as open plains. Surviving members are then accepted with
+ * p / q by {@link SpawnMultiplierCalculator#decide}, so each member's overall acceptance stays p.
+ *
+ * q is an upper bound of every member's acceptance p:
+ * - Members stay at the origin's Y level and within {@link #PACK_REACH} blocks of it horizontally
+ *   (vanilla moves each one up to 5 blocks from the last, at most 4 times per group), so the
+ *   {@link ChunkSpawnBounds} of the sections in reach bound their environment
+ * - Biomes use the highest configured biome multiplier
+ * - Mob factors use {@link MobEvaluators#upperBound}, which is infinite (no pack is rejected) while a
+ *   registered rule has no known bound
+ * Members of a pack are kept or skipped together, so their outcomes are correlated, but the rate of
+ * each member is unchanged. The simulation checks this with --packs.
+ *
+ * Origins inside a solid block are left alone: vanilla discards those packs right away.
+ *
+ * Platform hooks call {@link #beginPack} and {@link #endPack} around spawnCategoryForPosition.
+ * Pack state is per thread and also carries the pack's {@link SpawnBatch} (see {@link #currentBatch}),
+ * which is active whether or not early rejection is enabled, and the number of member rolls drawn
+ * so far (see {@link #nextDraw}). The gate rolls through {@link SpawnRoll} at the origin.
+ */
+public class EarlySpawnGate {
+
+    /**
+     * Largest horizontal distance between a pack member and the pack origin, in blocks.
+     */
+    public static final int PACK_REACH = 20;
+
+    private static final ThreadLocal<PackState> STATE = ThreadLocal.withInitial(PackState::new);
+
+    /**
+     * Gate a pack before vanilla does any per-member work.
+     *
+     * @param level The level being spawned in
+     * @param origin The pack origin chosen by vanilla
+     * @return false if the whole pack should be skipped
+     */
+    public static boolean beginPack(Level level, BlockPos origin) {
+        PackState state = STATE.get();
+        state.acceptance = 1.0;
+        state.draws = 0;
+        state.batch.reset(level);
+
+        CompiledConfig config = CompiledConfig.get();
+        if (!config.earlySpawnRejection || !config.enableImmersiveSpawning || !config.isDimensionEnabled(level.dimension())) {
+            return true;
+        }
+
+        // Vanilla's own first check: a pack starting inside a solid block never spawns anything
+        if (level.getBlockState(origin).isRedstoneConductor(level, origin)) {
+            return true;
+        }
+
+        long start = SpawnStats.startTimer();
+        double environment = ChunkSpawnBounds.forLevel(level).environmentUpperBound(level, origin, PACK_REACH);
+        double highest = environment * MobEvaluators.upperBound() * config.biomeMultiplierUpperBound;
+        double acceptance = Math.min(1.0, highest / config.referenceMax);
+
+        // NaN (an infinite bound times a zero factor) keeps the pack
+        boolean pass = !(acceptance < 1.0)
+                || SpawnRoll.roll(SpawnRoll.key(level), origin, SpawnRoll.SECTION_GATE) < acceptance;
+        SpawnStats.stopTimer(level, SpawnProbe.EARLY_GATE, start);
+        SpawnStats.forLevel(level).increment(pass ? SpawnCounter.EARLY_GATE_PASSED : SpawnCounter.EARLY_GATE_REJECTED);
+
+        if (pass) {
+            state.acceptance = acceptance < 1.0 ? acceptance : 1.0;
+        } else {
+            SpawnTrace.record(level, origin, null, SpawnCounter.EARLY_GATE_REJECTED,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN, highest);
+            // Vanilla returns right away, so the RETURN hook never runs for a rejected pack
+            state.batch.reset(null);
+        }
+        return pass;
+    }
+
+    /**
+     * Clear the pack state once spawnCategoryForPosition returns.
+     */
+    public static void endPack() {
+        PackState state = STATE.get();
+        state.acceptance = 1.0;
+        state.draws = 0;
+        state.batch.reset(null);
+    }
+
+    /**
+     * Index of the next member roll, so repeated attempts at one position in one pack roll apart.
+     * Counts from 0 at every pack start and end.
+     *
+     * @return The index, incremented for the next call
+     */
+    public static int nextDraw() {
+        return STATE.get().draws++;
+    }
+
+    /**
+     * Acceptance already applied by the gate to the current pack.
+     *
+     * @return q for the running pack, or 1.0 outside a gated pack
+     */
+    public static double packAcceptance() {
+        return STATE.get().acceptance;
+    }
+
+    /**
+     * Probe results shared by the members of the running pack.
+     *
+     * @param level The level the caller is spawning in
+     * @return The pack's batch, or null outside a pack in that level
+     */
+    public static SpawnBatch currentBatch(Level level) {
+        SpawnBatch batch = STATE.get().batch;
+        return batch.isFor(level) ? batch : null;
+    }
+
+    private static class PackState {
+        double acceptance = 1.0;
+        int draws;
+        final SpawnBatch batch = new SpawnBatch(null);
+    }
+}
@@ -0,0 +1,211 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+
+/**
+ * Spawn environment results shared across SpawnContext instances.
+ * Entries are grouped per loaded chunk, bounded by an LRU on chunk count,
+ * dropped when the chunk unloads and invalidated by block changes that affect them.
+ *
+ * Forest density is cached per 4x4 column cell at exact Y and evaluated at the cell's
+ * center column, so a cached value can differ from a per-block scan by at most a
+ * 2-block horizontal offset of the scan cylinder.
+ * Sky visibility is cached per block and is exact.
+ *
+ * Not thread-safe: all access must happen on the level's ticking thread.
+ */
+public class EnvironmentCache {
+
+    // Sky light lags block changes until the light engine catches up
+    private static final int LIGHT_SETTLE_TICKS = 20;
+
+    private static final byte SKY_UNKNOWN = 0;
+    private static final byte SKY_HIDDEN = 1;
+    private static final byte SKY_VISIBLE = 2;
+
+    // ChunkPos (as Long) -> cached results, in access order
+    private final Long2ObjectLinkedOpenHashMap<ChunkEntry> chunks = new Long2ObjectLinkedOpenHashMap<>();
+    private final DimensionStats stats;
+
+    EnvironmentCache(DimensionStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Check whether spawn contexts in this level should go through the cache.
+     */
+    public static boolean isActive(Level level) {
+        return level instanceof ServerLevel && CompiledConfig.get().enableEnvironmentCache;
+    }
+
+    /**
+     * Get the cache for a level, creating it on first use.
+     */
+    public static EnvironmentCache forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).environmentCache();
+    }
+
+    /**
+     * Forest density near a position, shared by all positions in the same 4x4 column cell.
+     *
+     * @param level The level/world
+     * @param pos The spawn position
+     * @return Forest density from 0.0 to 1.0
+     */
+    public double getForestDensity(Level level, BlockPos pos) {
+        ChunkEntry entry = entry(level, pos.getX() >> 4, pos.getZ() >> 4);
+        if (entry == null) {
+            return LocationDetector.getForestDensity(level, pos);
+        }
+
+        int key = forestKey(pos.getX(), pos.getY(), pos.getZ());
+        float cached = entry.forest.get(key);
+        if (!Float.isNaN(cached)) {
+            stats.increment(SpawnCounter.ENVIRONMENT_CACHE_HIT);
+            return cached;
+        }
+
+        stats.increment(SpawnCounter.ENVIRONMENT_CACHE_MISS);
+        BlockPos cellCenter = new BlockPos((pos.getX() & ~3) + 2, pos.getY(), (pos.getZ() & ~3) + 2);
+        float density = (float) LocationDetector.getForestDensity(level, cellCenter);
+        entry.forest.put(key, density);
+        return density;
+    }
+
+    /**
+     * Sky visibility at a position offset vertically, without allocating the offset position.
+     *
+     * @param level The level/world
+     * @param pos The base position
+     * @param dy Vertical offset from the base position
+     * @return true if the offset position can see the sky
+     */
+    public boolean canSeeSky(Level level, BlockPos pos, int dy) {
+        int x = pos.getX();
+        int y = pos.getY() + dy;
+        int z = pos.getZ();
+        ChunkEntry entry = entry(level, x >> 4, z >> 4);
+        if (entry == null || level.getGameTime() < entry.skyVolatileUntil) {
+            return level.canSeeSky(dy == 0 ? pos : pos.above(dy));
+        }
+
+        int key = skyKey(x, y, z);
+        byte cached = entry.sky.get(key);
+        if (cached != SKY_UNKNOWN) {
+            stats.increment(SpawnCounter.ENVIRONMENT_CACHE_HIT);
+            return cached == SKY_VISIBLE;
+        }
+
+        stats.increment(SpawnCounter.ENVIRONMENT_CACHE_MISS);
+        boolean visible = level.canSeeSky(dy == 0 ? pos : pos.above(dy));
+        entry.sky.put(key, visible ? SKY_VISIBLE : SKY_HIDDEN);
+        return visible;
+    }
+
+    /**
+     * Invalidate results affected by a block change.
+     *
+     * @param level The level/world
+     * @param pos The changed position
+     * @param logChanged Whether the block changed between log and non-log
+     * @param lightChanged Whether the block changed how it passes sky light
+     */
+    public void onBlockChanged(Level level, BlockPos pos, boolean logChanged, boolean lightChanged) {
+        if (lightChanged) {
+            ChunkEntry entry = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+            if (entry != null) {
+                entry.sky.clear();
+                entry.skyVolatileUntil = level.getGameTime() + LIGHT_SETTLE_TICKS;
+            }
+        }
+
+        if (logChanged) {
+            // Any cell whose scan cylinder (centered up to 2 blocks away) reaches the change
+            int reach = CompiledConfig.get().denseForestScanRadius + 2;
+            int minChunkX = (pos.getX() - reach) >> 4;
+            int maxChunkX = (pos.getX() + reach) >> 4;
+            int minChunkZ = (pos.getZ() - reach) >> 4;
+            int maxChunkZ = (pos.getZ() + reach) >> 4;
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    ChunkEntry entry = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+                    if (entry != null) {
+                        entry.forest.clear();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a chunk that is being unloaded.
+     */
+    public void removeChunk(ChunkPos pos) {
+        chunks.remove(pos.toLong());
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    public long getHits() {
+        return stats.get(SpawnCounter.ENVIRONMENT_CACHE_HIT);
+    }
+
+    public long getMisses() {
+        return stats.get(SpawnCounter.ENVIRONMENT_CACHE_MISS);
+    }
+
+    private ChunkEntry entry(Level level, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkEntry entry = chunks.getAndMoveToLast(key);
+        if (entry == null) {
+            // Only cache loaded chunks, so every entry is eventually evicted by an unload
+            if (level.getChunkSource().getChunkNow(chunkX, chunkZ) == null) {
+                return null;
+            }
+
+            entry = new ChunkEntry();
+            chunks.putAndMoveToLast(key, entry);
+
+            int maxChunks = CompiledConfig.get().environmentCacheMaxChunks;
+            while (chunks.size() > maxChunks) {
+                chunks.removeFirst();
+            }
+        }
+        return entry;
+    }
+
+    private static int forestKey(int x, int y, int z) {
+        return (y << 4) | (((z & 15) >> 2) << 2) | ((x & 15) >> 2);
+    }
+
+    private static int skyKey(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Cached results for one chunk.
+     */
+    private static class ChunkEntry {
+        // (y, 4x4 cell) -> density, NaN when absent
+        final Int2FloatOpenHashMap forest = new Int2FloatOpenHashMap();
+        // (y, column) -> SKY_* state
+        final Int2ByteOpenHashMap sky = new Int2ByteOpenHashMap();
+        long skyVolatileUntil;
+
+        ChunkEntry() {
+            forest.defaultReturnValue(Float.NaN);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.spawn.index.LogIndex;
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+
+/**
+ * Estimates the number of logs in the forest scan cylinder from a fixed budget of block reads.
+ *
+ * The cylinder's N blocks are ordered row by row (Z, then X, then Y) and split into n strata of
+ * consecutive blocks; one block of each stratum is read (stratified random sampling). The block
+ * within each stratum is picked by hashing the center position with the stratum index, so the
+ * sampled blocks do not line up with regularly spaced trees, and estimates stay deterministic
+ * for a given position.
+ *
+ * With a true log fraction f, the estimate N * hits / n has a standard error of at most
+ * about N * sqrt(f * (1 - f) / n) over positions (stratification only lowers it): for radius 10
+ * (N = 2219) and a budget of 96 at 3% logs that is about ±38 logs. When the budget covers the
+ * whole cylinder every block is read and the count is exact.
+ *
+ * Block reads per call never exceed the budget, whatever the scan radius.
+ */
+public class ForestSampler {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static volatile Stencil stencil;
+
+    /**
+     * Estimate the log count in a cylinder (Y ±{@link LocationDetector#FOREST_SCAN_VERTICAL_RANGE}).
+     *
+     * @param blockGetter The blocks to sample
+     * @param center The cylinder center
+     * @param radius Horizontal radius in blocks
+     * @param budget Maximum number of block reads
+     * @return Estimated number of logs in the cylinder
+     */
+    public static double estimateLogs(BlockGetter blockGetter, BlockPos center, int radius, int budget) {
+        Stencil current = stencilFor(radius, budget);
+        int[] offsets = current.offsets;
+        int[] starts = current.starts;
+        long seed = HashCommon.mix(center.asLong());
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int hits = 0;
+        for (int stratum = 0; stratum < starts.length - 1; stratum++) {
+            int length = starts[stratum + 1] - starts[stratum];
+            int pick = length == 1 ? 0 : (int) ((HashCommon.mix(seed + stratum * GOLDEN_GAMMA) >>> 1) % length);
+            int i = (starts[stratum] + pick) * 3;
+            pos.set(center.getX() + offsets[i], center.getY() + offsets[i + 1], center.getZ() + offsets[i + 2]);
+            if (LogIndex.isLog(blockGetter.getBlockState(pos))) {
+                hits++;
+            }
+        }
+
+        return hits * current.scale;
+    }
+
+    private static Stencil stencilFor(int radius, int budget) {
+        Stencil current = stencil;
+        if (current == null || current.radius != radius || current.budget != budget) {
+            current = Stencil.build(radius, budget);
+            stencil = current;
+        }
+        return current;
+    }
+
+    /**
+     * Cylinder offsets and strata for one (radius, budget) pair.
+     */
+    private static class Stencil {
+        final int radius;
+        final int budget;
+        // Packed (dx, dy, dz) triples of every cylinder block, in scan order
+        final int[] offsets;
+        // First block of each stratum, plus the block count at the end
+        final int[] starts;
+        // Blocks represented by each sample
+        final double scale;
+
+        private Stencil(int radius, int budget, int[] offsets, int[] starts, double scale) {
+            this.radius = radius;
+            this.budget = budget;
+            this.offsets = offsets;
+            this.starts = starts;
+            this.scale = scale;
+        }
+
+        static Stencil build(int radius, int budget) {
+            int verticalRange = LocationDetector.FOREST_SCAN_VERTICAL_RANGE;
+            int height = verticalRange * 2 + 1;
+
+            // All cylinder blocks in scan order (same circle test as the full scan)
+            int columns = 0;
+            for (int dz = -radius; dz <= radius; dz++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    if (dx * dx + dz * dz <= radius * radius) {
+                        columns++;
+                    }
+                }
+            }
+            int[] all = new int[columns * height * 3];
+            int cursor = 0;
+            for (int dz = -radius; dz <= radius; dz++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    if (dx * dx + dz * dz > radius * radius) {
+                        continue;
+                    }
+                    for (int dy = -verticalRange; dy <= verticalRange; dy++) {
+                        all[cursor++] = dx;
+                        all[cursor++] = dy;
+                        all[cursor++] = dz;
+                    }
+                }
+            }
+
+            // `budget` strata of equal size (within one block); one block each when the budget covers the cylinder
+            int total = columns * height;
+            int strata = Math.min(budget, total);
+            int[] starts = new int[strata + 1];
+            for (int stratum = 0; stratum <= strata; stratum++) {
+                starts[stratum] = (int) ((long) stratum * total / strata);
+            }
+            return new Stencil(radius, budget, all, starts, (double) total / strata);
+        }
+    }
+}
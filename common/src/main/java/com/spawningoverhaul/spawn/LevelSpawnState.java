@@ -0,0 +1,157 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.spawn.index.LogIndex;
+import com.spawningoverhaul.spawn.precompute.PrecomputeGrid;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnTrace;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All spawn caches, indices and metrics of one level, so each level's ticking thread only works
+ * on its own data and everything a level built is released together.
+ *
+ * States are created when a level loads ({@link SpawnLifecycle#onLevelLoad}) and dropped when it
+ * unloads or the server stops. A state belongs to one level instance: a level of the same dimension
+ * from another server (reopening a world in single-player) never sees the previous one's data,
+ * even if the previous level's unload was missed. States only hold a weak reference to their level,
+ * so a state left behind that way never keeps the level alive, and it is replaced by the next level
+ * of its dimension. Paths that only remove data (chunk unloads) use {@link #existing}, which never
+ * creates a state.
+ *
+ * Caches that depend on detection settings are replaced as a group by {@link #resetDetection};
+ * the log index and stats only depend on the world and are kept.
+ */
+public class LevelSpawnState {
+
+    private static final Map<ResourceKey<Level>, LevelSpawnState> STATES = new ConcurrentHashMap<>();
+
+    private final WeakReference<Level> level;
+    private final DimensionStats stats = new DimensionStats();
+    private final LogIndex logIndex = new LogIndex();
+    // Replaced on config change and by /spawntrace clear; read from any thread
+    private volatile EnvironmentCache environmentCache;
+    private volatile StructureCache.DimensionCache structureCache;
+    private volatile ChunkSpawnBounds spawnBounds;
+    private volatile PrecomputeGrid precomputeGrid;
+    private volatile SpawnTrace trace = new SpawnTrace();
+
+    private LevelSpawnState(Level level) {
+        this.level = new WeakReference<>(level);
+        resetDetection();
+    }
+
+    /**
+     * Create the state of a freshly loaded level, replacing any left over for its dimension.
+     */
+    public static void create(ServerLevel level) {
+        STATES.put(level.dimension(), new LevelSpawnState(level));
+    }
+
+    /**
+     * Get the state for a level, creating it on first use.
+     * Levels without a load event (offline tooling) get their state here.
+     */
+    public static LevelSpawnState forLevel(Level level) {
+        LevelSpawnState state = STATES.get(level.dimension());
+        if (state == null || !state.isFor(level)) {
+            state = STATES.compute(level.dimension(),
+                    (key, existing) -> existing != null && existing.isFor(level) ? existing : new LevelSpawnState(level));
+        }
+        return state;
+    }
+
+    /**
+     * Get the state for a level without creating it.
+     *
+     * @return The state, or null if the level has none (not loaded yet, or already unloaded)
+     */
+    public static LevelSpawnState existing(Level level) {
+        LevelSpawnState state = STATES.get(level.dimension());
+        return state != null && state.isFor(level) ? state : null;
+    }
+
+    /**
+     * Drop the state of an unloaded level, and a state left behind by a level that no longer exists.
+     */
+    public static void remove(Level level) {
+        STATES.computeIfPresent(level.dimension(),
+                (key, existing) -> existing.isFor(level) || existing.level.get() == null ? null : existing);
+    }
+
+    /**
+     * Drop all states (server stop).
+     */
+    public static void clearAll() {
+        STATES.clear();
+    }
+
+    /**
+     * States of all levels, keyed by dimension.
+     */
+    public static Map<ResourceKey<Level>, LevelSpawnState> all() {
+        return Collections.unmodifiableMap(STATES);
+    }
+
+    /**
+     * Replace the detection-dependent caches of every level (config change).
+     */
+    public static void resetDetectionAll() {
+        STATES.values().forEach(LevelSpawnState::resetDetection);
+    }
+
+    /**
+     * Replace the spawn traces of every level.
+     */
+    public static void resetTraceAll() {
+        STATES.values().forEach(state -> state.trace = new SpawnTrace());
+    }
+
+    private boolean isFor(Level level) {
+        return this.level.get() == level;
+    }
+
+    /**
+     * Replace the caches whose results depend on detection settings.
+     */
+    public void resetDetection() {
+        environmentCache = new EnvironmentCache(stats);
+        structureCache = new StructureCache.DimensionCache(stats);
+        spawnBounds = new ChunkSpawnBounds();
+        precomputeGrid = new PrecomputeGrid(stats);
+    }
+
+    public DimensionStats stats() {
+        return stats;
+    }
+
+    public LogIndex logIndex() {
+        return logIndex;
+    }
+
+    public EnvironmentCache environmentCache() {
+        return environmentCache;
+    }
+
+    StructureCache.DimensionCache structureCache() {
+        return structureCache;
+    }
+
+    public ChunkSpawnBounds spawnBounds() {
+        return spawnBounds;
+    }
+
+    public PrecomputeGrid precomputeGrid() {
+        return precomputeGrid;
+    }
+
+    public SpawnTrace trace() {
+        return trace;
+    }
+}
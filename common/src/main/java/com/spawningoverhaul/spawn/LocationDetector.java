@@ -1,10 +1,16 @@
 package com.spawningoverhaul.spawn;
 
-import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.config.ForestScanMode;
+import com.spawningoverhaul.spawn.index.LogIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
 
 /**
  * Performs environmental checks for spawn location detection.
@@ -12,6 +18,12 @@ import net.minecraft.world.level.block.state.BlockState;
  */
 public class LocationDetector {
 
+    // Positions below this Y without sky access count as caves
+    public static final int CAVE_MAX_Y = 60;
+
+    // Forest scans cover Y ±3 blocks around the spawn position
+    public static final int FOREST_SCAN_VERTICAL_RANGE = 3;
+
     /**
      * Check if the position can see the sky (is outside).
      *
@@ -20,7 +32,7 @@ public class LocationDetector {
      * @return true if position can see sky
      */
     public static boolean isOutside(Level level, BlockPos pos) {
-        return level.canSeeSky(pos.above());
+        return canSeeSky(level, pos, 1);
     }
 
     /**
@@ -32,7 +44,32 @@ public class LocationDetector {
      * @return true if in a cave
      */
     public static boolean isInCave(Level level, BlockPos pos) {
-        return pos.getY() < 60 && !level.canSeeSky(pos);
+        return pos.getY() < CAVE_MAX_Y && !canSeeSky(level, pos, 0);
+    }
+
+    /**
+     * Check whether the sky is open above a position offset vertically.
+     * By default this compares Y against the column's MOTION_BLOCKING heightmap, which the chunk
+     * keeps up to date on every block change; with sky light detection enabled it asks the light engine.
+     *
+     * @param level The level/world
+     * @param pos The base position
+     * @param dy Vertical offset from the base position
+     * @return true if the offset position is open to the sky
+     */
+    public static boolean canSeeSky(Level level, BlockPos pos, int dy) {
+        if (CompiledConfig.get().skyLightCaveDetection) {
+            return level.canSeeSky(dy == 0 ? pos : pos.above(dy));
+        }
+        return isAboveSurface(level, pos, dy);
+    }
+
+    /**
+     * Heightmap comparison behind {@link #canSeeSky}, without the config check.
+     * Unloaded columns report the bottom of the world, so every position counts as open.
+     */
+    public static boolean isAboveSurface(Level level, BlockPos pos, int dy) {
+        return pos.getY() + dy >= level.getHeight(Heightmap.Types.MOTION_BLOCKING, pos.getX(), pos.getZ());
     }
 
     /**
@@ -44,7 +81,16 @@ public class LocationDetector {
      * @return Cave depth multiplier (1.0 to 5.0)
      */
     public static double getCaveDepth(BlockPos pos) {
-        int y = pos.getY();
+        return getCaveDepth(pos.getY());
+    }
+
+    /**
+     * Cave depth multiplier for a Y coordinate, without a position.
+     *
+     * @param y The Y coordinate
+     * @return Cave depth multiplier (1.0 to 5.0)
+     */
+    public static double getCaveDepth(int y) {
         if (y >= 60) {
             return 1.0;
         }
@@ -57,15 +103,178 @@ public class LocationDetector {
      * Returns a value from 0.0 (no forest) to 1.0 (maximum density).
      * Uses cylinder scan (not sphere) for better performance.
      * Scans Y ±3 blocks only to limit vertical range.
+     * With {@link ForestScanMode#LOG_INDEX} the count comes from the {@link LogIndex} instead of block reads,
+     * with {@link ForestScanMode#SAMPLED} it is estimated by {@link ForestSampler}, and with
+     * {@link ForestScanMode#SUMMED_AREA} it is approximated from the index's summed-area tables.
      *
      * @param level The level/world
      * @param pos The center position
      * @return Forest density from 0.0 to 1.0
      */
     public static double getForestDensity(Level level, BlockPos pos) {
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
+        return getForestDensity(level, LogIndex.forLevel(level), pos);
+    }
+
+    /**
+     * Calculate forest density against any block source.
+     * Used by the live path and by offline tooling that has no {@link Level}.
+     *
+     * @param blockGetter The blocks to scan
+     * @param logIndex The log index for the same blocks (used with {@link ForestScanMode#LOG_INDEX})
+     * @param pos The center position
+     * @return Forest density from 0.0 to 1.0
+     */
+    public static double getForestDensity(BlockGetter blockGetter, LogIndex logIndex, BlockPos pos) {
+        CompiledConfig config = CompiledConfig.get();
         int radius = config.denseForestScanRadius;
         int maxLogs = config.denseForestLogThreshold;
+
+        double logCount = switch (config.forestScanMode) {
+            case LOG_INDEX -> logIndex.countLogs(blockGetter, pos, radius, FOREST_SCAN_VERTICAL_RANGE, maxLogs);
+            case SAMPLED -> ForestSampler.estimateLogs(blockGetter, pos, radius, config.forestSampleBudget);
+            case SUMMED_AREA -> logIndex.countLogsSummed(blockGetter, pos, radius, FOREST_SCAN_VERTICAL_RANGE);
+            case FULL_SCAN -> countLogs(blockGetter, pos, radius, maxLogs);
+        };
+
+        // Return density as a ratio (0.0 to 1.0)
+        return Math.min(1.0, logCount / maxLogs);
+    }
+
+    /**
+     * Count log blocks in a cylinder by reading every block.
+     * Uses cylinder scan (not sphere) and scans Y ±3 blocks only.
+     * Reads chunk sections directly when the block source provides them (a {@link SectionSource}
+     * or a {@link Level}), otherwise reads block by block.
+     *
+     * @param blockGetter The blocks to scan
+     * @param pos The center position
+     * @param radius Horizontal radius in blocks
+     * @param maxLogs Stop counting once this many logs are found
+     * @return Number of logs found; counting stops once maxLogs is reached
+     */
+    public static int countLogs(BlockGetter blockGetter, BlockPos pos, int radius, int maxLogs) {
+        if (blockGetter instanceof SectionSource sections) {
+            return countLogsInSections(blockGetter, sections, pos, radius, maxLogs);
+        }
+        if (blockGetter instanceof Level level) {
+            return countLogsInSections(level, (chunkX, chunkZ) -> {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                return chunk == null ? null : chunk.getSections();
+            }, pos, radius, maxLogs);
+        }
+        return countLogsByBlock(blockGetter, pos, radius, maxLogs);
+    }
+
+    /**
+     * Count log blocks in a cylinder by walking chunk sections.
+     * Sections whose palette cannot contain a log are skipped without reading any block,
+     * and the rest are read through the section's palette (no chunk lookup or BlockPos per block).
+     * Chunks the source does not provide are read block by block through the block getter.
+     *
+     * @param blockGetter Height limits, and blocks for chunks without sections
+     * @param sections Chunk sections, indexed from the block getter's minimum section
+     * @param pos The center position
+     * @param radius Horizontal radius in blocks
+     * @param maxLogs Stop counting once this many logs are found
+     * @return Number of logs found; counting stops at the first chunk that reaches maxLogs
+     */
+    public static int countLogsInSections(BlockGetter blockGetter, SectionSource sections, BlockPos pos, int radius, int maxLogs) {
+        int yMin = Math.max(pos.getY() - FOREST_SCAN_VERTICAL_RANGE, blockGetter.getMinBuildHeight());
+        int yMax = Math.min(pos.getY() + FOREST_SCAN_VERTICAL_RANGE, blockGetter.getMaxBuildHeight() - 1);
+        if (yMin > yMax) {
+            return 0;
+        }
+
+        int minSection = blockGetter.getMinSection();
+        int centerX = pos.getX();
+        int centerZ = pos.getZ();
+        int radiusSq = radius * radius;
+        int logCount = 0;
+
+        for (int chunkZ = (centerZ - radius) >> 4; chunkZ <= (centerZ + radius) >> 4; chunkZ++) {
+            int zStart = Math.max(centerZ - radius, chunkZ << 4);
+            int zEnd = Math.min(centerZ + radius, (chunkZ << 4) + 15);
+
+            for (int chunkX = (centerX - radius) >> 4; chunkX <= (centerX + radius) >> 4; chunkX++) {
+                int xStart = Math.max(centerX - radius, chunkX << 4);
+                int xEnd = Math.min(centerX + radius, (chunkX << 4) + 15);
+                LevelChunkSection[] chunkSections = sections.getSections(chunkX, chunkZ);
+
+                if (chunkSections == null) {
+                    logCount += countLogsInBox(blockGetter, centerX, centerZ, radiusSq, xStart, xEnd, yMin, yMax, zStart, zEnd);
+                } else {
+                    for (int sectionY = yMin >> 4; sectionY <= yMax >> 4; sectionY++) {
+                        LevelChunkSection section = chunkSections[sectionY - minSection];
+                        // Palette check: most sections (stone, water, air) cannot contain a log
+                        if (section.hasOnlyAir() || !section.maybeHas(LogIndex::isLog)) {
+                            continue;
+                        }
+
+                        int bandMin = Math.max(yMin, sectionY << 4);
+                        int bandMax = Math.min(yMax, (sectionY << 4) + 15);
+                        for (int z = zStart; z <= zEnd; z++) {
+                            int dz = z - centerZ;
+                            int rowLimit = radiusSq - dz * dz;
+                            for (int x = xStart; x <= xEnd; x++) {
+                                int dx = x - centerX;
+                                if (dx * dx > rowLimit) {
+                                    continue;
+                                }
+                                for (int y = bandMin; y <= bandMax; y++) {
+                                    if (LogIndex.isLog(section.getBlockState(x & 15, y & 15, z & 15))) {
+                                        logCount++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+
+                // Early exit if maximum reached
+                if (logCount >= maxLogs) {
+                    return logCount;
+                }
+            }
+        }
+
+        return logCount;
+    }
+
+    /**
+     * Count logs in the part of a chunk inside the cylinder, one block read at a time.
+     */
+    private static int countLogsInBox(BlockGetter blockGetter, int centerX, int centerZ, int radiusSq,
+                                      int xStart, int xEnd, int yMin, int yMax, int zStart, int zEnd) {
+        BlockPos.MutableBlockPos checkPos = new BlockPos.MutableBlockPos();
+        int logCount = 0;
+        for (int z = zStart; z <= zEnd; z++) {
+            int dz = z - centerZ;
+            for (int x = xStart; x <= xEnd; x++) {
+                int dx = x - centerX;
+                if (dx * dx + dz * dz > radiusSq) {
+                    continue;
+                }
+                for (int y = yMin; y <= yMax; y++) {
+                    if (LogIndex.isLog(blockGetter.getBlockState(checkPos.set(x, y, z)))) {
+                        logCount++;
+                    }
+                }
+            }
+        }
+        return logCount;
+    }
+
+    /**
+     * Count log blocks in a cylinder by reading every block through the block getter.
+     * Uses cylinder scan (not sphere) and scans Y ±3 blocks only.
+     *
+     * @param blockGetter The blocks to scan
+     * @param pos The center position
+     * @param radius Horizontal radius in blocks
+     * @param maxLogs Stop counting once this many logs are found
+     * @return Number of logs found, capped at maxLogs
+     */
+    public static int countLogsByBlock(BlockGetter blockGetter, BlockPos pos, int radius, int maxLogs) {
         int logCount = 0;
 
         // Cylinder scan: iterate through X and Z in radius, limited Y range
@@ -77,9 +286,9 @@ public class LocationDetector {
                 }
 
                 // Scan Y ±3 blocks only
-                for (int dy = -3; dy <= 3; dy++) {
+                for (int dy = -FOREST_SCAN_VERTICAL_RANGE; dy <= FOREST_SCAN_VERTICAL_RANGE; dy++) {
                     BlockPos checkPos = pos.offset(dx, dy, dz);
-                    BlockState state = level.getBlockState(checkPos);
+                    BlockState state = blockGetter.getBlockState(checkPos);
 
                     // Check if block is a log (uses vanilla log tag)
                     if (state.is(BlockTags.LOGS)) {
@@ -87,15 +296,14 @@ public class LocationDetector {
 
                         // Early exit if maximum reached
                         if (logCount >= maxLogs) {
-                            return 1.0;
+                            return logCount;
                         }
                     }
                 }
             }
         }
 
-        // Return density as a ratio (0.0 to 1.0)
-        return Math.min(1.0, (double) logCount / maxLogs);
+        return logCount;
     }
 
     /**
@@ -109,4 +317,17 @@ public class LocationDetector {
     public static boolean isInDangerousStructure(Level level, BlockPos pos) {
         return StructureCache.isInDangerousStructure(level, pos);
     }
+
+    /**
+     * Direct access to chunk sections for the section-walking log scan.
+     */
+    @FunctionalInterface
+    public interface SectionSource {
+        /**
+         * Get a chunk's sections, bottom to top.
+         *
+         * @return The sections, or null if the chunk is not available
+         */
+        LevelChunkSection[] getSections(int chunkX, int chunkZ);
+    }
 }
@@ -0,0 +1,102 @@
+package com.spawningoverhaul.spawn;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Environment probe results shared by the spawn contexts of one batch
+ * (a spawn pack, or the positions passed to {@link SpawnMultiplierCalculator#decideAll}).
+ *
+ * Pack members are only a few blocks apart and share the origin's Y level, so they often land
+ * in the same column, 4x4 cell or chunk. Each result is memoized at the granularity of the
+ * path that produced it, so sharing never changes a decision:
+ * - Sky visibility per block
+ * - Forest density per 4x4 cell and Y when the {@link EnvironmentCache} is active, per block otherwise
+ * - Structure membership per chunk (the {@link StructureCache} granularity)
+ *
+ * Memos are small fixed arrays searched linearly; the oldest entry is replaced when full.
+ * A batch belongs to one level and one thread and is only valid while the world is not modified.
+ */
+public class SpawnBatch {
+
+    // Enough for a full pack (vanilla tries at most 3 groups of 4 positions)
+    private static final int MEMO_SIZE = 16;
+
+    private Level level;
+    private boolean cellSharedForest;
+    final ProbeMemo sky = new ProbeMemo();
+    final ProbeMemo forest = new ProbeMemo();
+    final ProbeMemo structure = new ProbeMemo();
+
+    public SpawnBatch(Level level) {
+        reset(level);
+    }
+
+    /**
+     * Forget all results and rebind to a level (null to deactivate).
+     */
+    public void reset(Level level) {
+        this.level = level;
+        this.cellSharedForest = level != null && EnvironmentCache.isActive(level);
+        sky.clear();
+        forest.clear();
+        structure.clear();
+    }
+
+    /**
+     * Check whether contexts in a level can use this batch.
+     */
+    public boolean isFor(Level level) {
+        return this.level != null && this.level == level;
+    }
+
+    static long skyKey(BlockPos pos, int dy) {
+        return BlockPos.asLong(pos.getX(), pos.getY() + dy, pos.getZ());
+    }
+
+    long forestKey(BlockPos pos) {
+        if (cellSharedForest) {
+            return BlockPos.asLong((pos.getX() & ~3) + 2, pos.getY(), (pos.getZ() & ~3) + 2);
+        }
+        return pos.asLong();
+    }
+
+    static long structureKey(BlockPos pos) {
+        return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    /**
+     * Fixed-size memo of probe results keyed by packed positions.
+     */
+    static class ProbeMemo {
+        private final long[] keys = new long[MEMO_SIZE];
+        private final double[] values = new double[MEMO_SIZE];
+        private int size;
+        private int next;
+
+        /**
+         * @return The memoized value, or NaN if absent
+         */
+        double get(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return Double.NaN;
+        }
+
+        void put(long key, double value) {
+            keys[next] = key;
+            values[next] = value;
+            next = (next + 1) % MEMO_SIZE;
+            size = Math.max(size, next == 0 ? MEMO_SIZE : next);
+        }
+
+        void clear() {
+            size = 0;
+            next = 0;
+        }
+    }
+}
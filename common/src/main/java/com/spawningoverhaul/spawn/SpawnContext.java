@@ -1,5 +1,11 @@
 package com.spawningoverhaul.spawn;
 
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.precompute.PrecomputeGrid;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnProbe;
+import com.spawningoverhaul.spawn.stats.SpawnStats;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.MobSpawnType;
@@ -8,12 +14,19 @@ import net.minecraft.world.level.Level;
 /**
  * Immutable snapshot of a spawn attempt with lazy-evaluated environment detection.
  * Caches expensive detection results to avoid redundant world queries.
+ * Results are read from the {@link PrecomputeGrid} when it is active and the chunk is ready,
+ * and are otherwise shared across contexts through {@link EnvironmentCache} when it is active.
+ * Contexts created with a {@link SpawnBatch} also share results with the rest of the batch.
+ * The forest scan and structure lookup are timed into {@link SpawnStats} the first time they are evaluated.
  */
 public class SpawnContext {
     private final Level level;
     private final BlockPos spawnPos;
     private final EntityType<?> entityType;
     private final MobSpawnType spawnType;
+    private final SpawnBatch batch;
+    // Resolved on first use, so a decision looks up its level's stats once
+    private DimensionStats stats;
 
     // Lazy-evaluated cached results (Boolean/Double vs primitive for null-checking)
     private Boolean isNight;
@@ -22,12 +35,22 @@ public class SpawnContext {
     private Boolean isInCave;
     private Double caveDepth;
     private Boolean isInDangerousStructure;
+    private BiomeModifiers biomeModifiers;
+    private int biomeId;
 
     public SpawnContext(Level level, BlockPos spawnPos, EntityType<?> entityType, MobSpawnType spawnType) {
+        this(level, spawnPos, entityType, spawnType, null);
+    }
+
+    /**
+     * @param batch Batch to share probe results with, or null; ignored if it belongs to another level
+     */
+    public SpawnContext(Level level, BlockPos spawnPos, EntityType<?> entityType, MobSpawnType spawnType, SpawnBatch batch) {
         this.level = level;
         this.spawnPos = spawnPos;
         this.entityType = entityType;
         this.spawnType = spawnType;
+        this.batch = batch != null && batch.isFor(level) ? batch : null;
     }
 
     /**
@@ -59,6 +82,18 @@ public class SpawnContext {
         return spawnType;
     }
 
+    /**
+     * Stats of the context's level.
+     *
+     * @return The stats, or null if the context has no level
+     */
+    public DimensionStats getStats() {
+        if (stats == null && level != null) {
+            stats = SpawnStats.forLevel(level);
+        }
+        return stats;
+    }
+
     public boolean isNight() {
         if (isNight == null) {
             isNight = !level.isDay();
@@ -68,25 +103,80 @@ public class SpawnContext {
 
     public boolean isOutside() {
         if (isOutside == null) {
-            isOutside = LocationDetector.isOutside(level, spawnPos);
+            isOutside = canSeeSky(1);
         }
         return isOutside;
     }
 
     public double getForestDensity() {
         if (forestDensity == null) {
-            forestDensity = LocationDetector.getForestDensity(level, spawnPos);
+            long key = batch != null ? batch.forestKey(spawnPos) : 0L;
+            double shared = batch != null ? batch.forest.get(key) : Double.NaN;
+            if (!Double.isNaN(shared)) {
+                getStats().increment(SpawnCounter.BATCH_PROBE_SHARED);
+                forestDensity = shared;
+                return shared;
+            }
+
+            long start = SpawnStats.startTimer();
+            float precomputed = PrecomputeGrid.isActive(level)
+                    ? PrecomputeGrid.forLevel(level).getForestDensity(spawnPos)
+                    : Float.NaN;
+            if (!Float.isNaN(precomputed)) {
+                forestDensity = (double) precomputed;
+            } else {
+                forestDensity = EnvironmentCache.isActive(level)
+                        ? EnvironmentCache.forLevel(level).getForestDensity(level, spawnPos)
+                        : LocationDetector.getForestDensity(level, spawnPos);
+            }
+            SpawnStats.stopTimer(getStats(), SpawnProbe.FOREST_SCAN, start);
+            if (batch != null) {
+                batch.forest.put(key, forestDensity);
+            }
         }
         return forestDensity;
     }
 
     public boolean isInCave() {
         if (isInCave == null) {
-            isInCave = LocationDetector.isInCave(level, spawnPos);
+            isInCave = spawnPos.getY() < LocationDetector.CAVE_MAX_Y && !canSeeSky(0);
         }
         return isInCave;
     }
 
+    // Sky visibility at the spawn position offset vertically: heightmap, or batch, grid, cache, then sky light
+    private boolean canSeeSky(int dy) {
+        if (!CompiledConfig.get().skyLightCaveDetection) {
+            return LocationDetector.isAboveSurface(level, spawnPos, dy);
+        }
+        if (batch == null) {
+            return canSeeSkyUnshared(dy);
+        }
+
+        long key = SpawnBatch.skyKey(spawnPos, dy);
+        double shared = batch.sky.get(key);
+        if (!Double.isNaN(shared)) {
+            getStats().increment(SpawnCounter.BATCH_PROBE_SHARED);
+            return shared != 0.0;
+        }
+        boolean visible = canSeeSkyUnshared(dy);
+        batch.sky.put(key, visible ? 1.0 : 0.0);
+        return visible;
+    }
+
+    private boolean canSeeSkyUnshared(int dy) {
+        if (PrecomputeGrid.isActive(level)) {
+            byte precomputed = PrecomputeGrid.forLevel(level).canSeeSky(spawnPos, dy);
+            if (precomputed != PrecomputeGrid.SKY_UNKNOWN) {
+                return precomputed == PrecomputeGrid.SKY_VISIBLE;
+            }
+        }
+        if (EnvironmentCache.isActive(level)) {
+            return EnvironmentCache.forLevel(level).canSeeSky(level, spawnPos, dy);
+        }
+        return level.canSeeSky(dy == 0 ? spawnPos : spawnPos.above(dy));
+    }
+
     public double getCaveDepth() {
         if (caveDepth == null) {
             caveDepth = LocationDetector.getCaveDepth(spawnPos);
@@ -94,9 +184,46 @@ public class SpawnContext {
         return caveDepth;
     }
 
+    /**
+     * Configured multiplier of the biome at the spawn position (biomeSettings).
+     */
+    public double getBiomeMultiplier() {
+        BiomeModifiers modifiers = biomeModifiers();
+        return modifiers.multiplier(biomeId);
+    }
+
+    /**
+     * Check whether hostile mobs are blacklisted in the biome at the spawn position (biomeSettings).
+     */
+    public boolean isHostileBlacklistedBiome() {
+        BiomeModifiers modifiers = biomeModifiers();
+        return modifiers.isHostileBlacklisted(biomeId);
+    }
+
+    private BiomeModifiers biomeModifiers() {
+        if (biomeModifiers == null) {
+            biomeModifiers = BiomeModifiers.forLevel(level);
+            biomeId = biomeModifiers.biomeId(level, spawnPos);
+        }
+        return biomeModifiers;
+    }
+
     public boolean isInDangerousStructure() {
         if (isInDangerousStructure == null) {
+            long key = SpawnBatch.structureKey(spawnPos);
+            double shared = batch != null ? batch.structure.get(key) : Double.NaN;
+            if (!Double.isNaN(shared)) {
+                getStats().increment(SpawnCounter.BATCH_PROBE_SHARED);
+                isInDangerousStructure = shared != 0.0;
+                return isInDangerousStructure;
+            }
+
+            long start = SpawnStats.startTimer();
             isInDangerousStructure = LocationDetector.isInDangerousStructure(level, spawnPos);
+            SpawnStats.stopTimer(getStats(), SpawnProbe.STRUCTURE_LOOKUP, start);
+            if (batch != null) {
+                batch.structure.put(key, isInDangerousStructure ? 1.0 : 0.0);
+            }
         }
         return isInDangerousStructure;
     }
@@ -0,0 +1,146 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.spawn.index.LogIndex;
+import com.spawningoverhaul.spawn.persist.SpawnSummaryStore;
+import com.spawningoverhaul.spawn.precompute.PrecomputeGrid;
+import com.spawningoverhaul.spawn.rules.MobRuleRegistry;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Platform-agnostic entry points for world lifecycle events.
+ * Loader modules forward chunk, block and level events here so spawn indices stay in sync with the world.
+ */
+public class SpawnLifecycle {
+
+    /**
+     * Called when a full chunk is loaded into a server level.
+     */
+    public static void onChunkLoad(ServerLevel level, LevelChunk chunk) {
+        if (CompiledConfig.get().forestScanMode.usesLogIndex()) {
+            LogIndex.forLevel(level).indexChunk(chunk);
+        }
+        ChunkSpawnBounds.forLevel(level).onChunkLoaded(chunk.getPos());
+        SpawnSummaryStore.onChunkLoad(level, chunk);
+    }
+
+    /**
+     * Called when a chunk is unloaded from a server level.
+     * Chunks unloaded after their level (server shutdown) have nothing left to remove.
+     */
+    public static void onChunkUnload(ServerLevel level, LevelChunk chunk) {
+        LevelSpawnState state = LevelSpawnState.existing(level);
+        if (state == null) {
+            return;
+        }
+        ChunkPos pos = chunk.getPos();
+        state.logIndex().removeChunk(pos);
+        state.environmentCache().removeChunk(pos);
+        StructureCache.removeChunk(state, pos);
+        state.spawnBounds().removeChunk(pos);
+        state.precomputeGrid().removeChunk(pos.x, pos.z);
+    }
+
+    /**
+     * Called after a block state changed inside a loaded chunk.
+     *
+     * @param level The level the chunk belongs to (client levels are ignored)
+     * @param pos The changed position
+     * @param oldState The previous block state
+     * @param newState The new block state
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return;
+        }
+        // Without a state there is nothing to update (level not loaded yet, or already unloaded)
+        LevelSpawnState state = LevelSpawnState.existing(level);
+        if (state == null) {
+            return;
+        }
+
+        boolean wasLog = LogIndex.isLog(oldState);
+        boolean isLog = LogIndex.isLog(newState);
+        if (wasLog != isLog) {
+            state.logIndex().onBlockChanged(pos, isLog);
+            state.spawnBounds().onLogChanged(pos);
+        }
+
+        boolean lightChanged = oldState.getLightBlock(level, pos) != newState.getLightBlock(level, pos)
+                || oldState.propagatesSkylightDown(level, pos) != newState.propagatesSkylightDown(level, pos);
+        if (wasLog != isLog || lightChanged) {
+            state.environmentCache().onBlockChanged(level, pos, wasLog != isLog, lightChanged);
+            state.precomputeGrid().onBlockChanged(pos, wasLog != isLog, lightChanged);
+            SpawnSummaryStore.onBlockChanged(serverLevel, pos, wasLog != isLog, lightChanged);
+        }
+    }
+
+    /**
+     * Called at the end of every server level tick.
+     */
+    public static void onLevelTick(ServerLevel level) {
+        if (PrecomputeGrid.isActive(level)) {
+            PrecomputeGrid.forLevel(level).tick(level);
+        }
+    }
+
+    /**
+     * Called when a server is starting, after all registries are populated.
+     * Recompiles the config so IDs from mods registered after our initialization resolve,
+     * and freezes the mob rule registry.
+     */
+    public static void onServerStarting() {
+        CompiledConfig.compile(SpawningConfig.HANDLER().instance());
+        MobRuleRegistry.freeze();
+    }
+
+    /**
+     * Called after the server reloaded its datapacks.
+     * Drops tables resolved against registry contents so they are rebuilt from the reloaded data.
+     */
+    public static void onDataPackReload() {
+        StructureClassification.invalidate();
+        BiomeModifiers.invalidate();
+    }
+
+    /**
+     * Called when a server level is loaded, before its chunks load.
+     */
+    public static void onLevelLoad(ServerLevel level) {
+        LevelSpawnState.create(level);
+    }
+
+    /**
+     * Called when a server level is unloaded.
+     */
+    public static void onLevelUnload(ServerLevel level) {
+        LevelSpawnState.remove(level);
+    }
+
+    /**
+     * Called after the configuration was changed and saved.
+     * Drops cached results that depend on detection settings.
+     */
+    public static void onConfigChanged() {
+        StructureClassification.invalidate();
+        BiomeModifiers.invalidate();
+        LevelSpawnState.resetDetectionAll();
+        PrecomputeGrid.stopWorkers();
+    }
+
+    /**
+     * Called once the server has fully stopped.
+     */
+    public static void onServerStopped() {
+        StructureClassification.invalidate();
+        BiomeModifiers.invalidate();
+        LevelSpawnState.clearAll();
+        PrecomputeGrid.stopWorkers();
+    }
+}
@@ -1,8 +1,20 @@
 package com.spawningoverhaul.spawn;
 
-import com.spawningoverhaul.config.SpawningConfig;
-import com.spawningoverhaul.spawn.rules.MobRuleRegistry;
-import net.minecraft.util.RandomSource;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.rules.MobEvaluator;
+import com.spawningoverhaul.spawn.rules.MobEvaluators;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnProbe;
+import com.spawningoverhaul.spawn.stats.SpawnStats;
+import com.spawningoverhaul.spawn.stats.SpawnTrace;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.entity.MobSpawnType;
+import net.minecraft.world.level.Level;
+
+import java.util.List;
 
 /**
  * Calculates the final spawn rate multiplier based on environmental factors and mob rules.
@@ -18,7 +30,33 @@ public class SpawnMultiplierCalculator {
      * @return The final spawn multiplier
      */
     public static double calculateMultiplier(SpawnContext context) {
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
+        CompiledConfig config = CompiledConfig.get();
+        if (config.enableBiomeModifiers && isHostile(context) && context.isHostileBlacklistedBiome()) {
+            return 0.0;
+        }
+
+        double multiplier = calculateEnvironmentMultiplier(context);
+
+        // Mob-specific rules and the configured per-mob multiplier, fused per mob type
+        multiplier *= mobFactor(context);
+
+        // Biome multiplier on top
+        if (config.enableBiomeModifiers) {
+            multiplier *= context.getBiomeMultiplier();
+        }
+
+        return multiplier;
+    }
+
+    /**
+     * Calculate the environment part of the multiplier (base, cave, forest and structure),
+     * which does not depend on the mob type.
+     *
+     * @param context The spawn context (the entity type is not used)
+     * @return The environment multiplier
+     */
+    public static double calculateEnvironmentMultiplier(SpawnContext context) {
+        CompiledConfig config = CompiledConfig.get();
 
         // Start with configurable base multiplier
         double multiplier = config.baseMultiplier;
@@ -26,18 +64,14 @@ public class SpawnMultiplierCalculator {
         // Calculate cave contribution (scales from min to max based on depth)
         double caveMultiplier = 0.0;
         if (context.isInCave()) {
-            // getCaveDepth returns 1.0 at Y=60 and 5.0 at Y=-64
-            double depth = context.getCaveDepth();
-            double depthRatio = (depth - 1.0) / 4.0; // Normalize to 0.0-1.0 (since depth is 1.0-5.0)
-            caveMultiplier = config.minCaveMultiplier + (config.maxCaveMultiplier - config.minCaveMultiplier) * depthRatio;
+            caveMultiplier = caveMultiplier(config, context.getCaveDepth());
         }
 
         // Calculate forest contribution (scales from min to max based on density)
         double forestMultiplier = 0.0;
         double forestDensity = context.getForestDensity();
         if (forestDensity > 0.0) {
-            // forestDensity is already 0.0-1.0
-            forestMultiplier = config.minForestMultiplier + (config.maxForestMultiplier - config.minForestMultiplier) * forestDensity;
+            forestMultiplier = forestMultiplier(config, forestDensity);
         }
 
         // Use the highest multiplier (base, cave, or forest)
@@ -48,17 +82,150 @@ public class SpawnMultiplierCalculator {
             multiplier *= config.dangerousStructureMultiplier;
         }
 
-        // Mob-specific rules (can override or modify)
-        double mobMultiplier = MobRuleRegistry.getMultiplier(context);
-        multiplier *= mobMultiplier;
-
         return multiplier;
     }
 
+    /**
+     * Make the spawn decision for a context, evaluating probes in order of cost.
+     *
+     * Gives the same result as {@link #calculateMultiplier} followed by {@link #shouldAllowSpawn}
+     * for the same roll, drawn from {@link SpawnRoll} for the position, mob type and the decision's
+     * index in the running pack:
+     * - Hostile mobs in a blacklisted biome are denied first, before any rule or block probe
+     * - Mob factor (rules and configured mob multiplier) and biome multiplier next: a zero denies
+     *   without any environment probe
+     * - Cave check (Y level and sky visibility) next, since it is cheap
+     * - The roll is drawn as soon as the multiplier is known to be positive, then compared
+     *   against the lowest and highest acceptance the unknown factors still allow
+     * - Structure lookup, then forest scan, only while the roll is still undecided
+     *
+     * Inside a pack that passed the {@link EarlySpawnGate}, acceptance is divided by the
+     * gate's acceptance, which is never below it, so the combined probability is unchanged.
+     *
+     * @param context The spawn context
+     * @param rollKey Key for the tick's rolls, from {@link SpawnRoll#key}
+     * @return true if spawn should be allowed
+     */
+    public static boolean decide(SpawnContext context, long rollKey) {
+        long start = SpawnStats.startTimer();
+        CompiledConfig config = CompiledConfig.get();
+        double packAcceptance = EarlySpawnGate.packAcceptance();
+
+        // Biome: one biome lookup, no block reads
+        double biomeMultiplier = 1.0;
+        if (config.enableBiomeModifiers) {
+            if (isHostile(context) && context.isHostileBlacklistedBiome()) {
+                return finish(context, SpawnCounter.DENIED_BIOME, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0.0,
+                        true, config.enableStructureModifications, start);
+            }
+            biomeMultiplier = context.getBiomeMultiplier();
+        }
+
+        // Mob and biome factors; all other factors are non-negative, so they decide the sign
+        double mobMultiplier = mobFactor(context);
+        if (!(mobMultiplier > 0.0) || !(biomeMultiplier > 0.0)) {
+            return finish(context, SpawnCounter.DENIED_ZERO_MULTIPLIER, Double.NaN, Double.NaN, mobMultiplier, biomeMultiplier, 0.0,
+                    true, config.enableStructureModifications, start);
+        }
+
+        // Environment bounds: base and cave are known, forest can only raise the maximum
+        double environmentLow = config.baseMultiplier;
+        if (context.isInCave()) {
+            environmentLow = Math.max(environmentLow, caveMultiplier(config, context.getCaveDepth()));
+        }
+        double environmentHigh = Math.max(environmentLow, config.forestMultiplierUpperBound);
+
+        // Structure bounds: either no change or the dangerous multiplier
+        boolean structureKnown = !config.enableStructureModifications;
+        double structureLow = structureKnown ? 1.0 : Math.min(1.0, config.dangerousStructureMultiplier);
+        double structureHigh = structureKnown ? 1.0 : Math.max(1.0, config.dangerousStructureMultiplier);
+
+        boolean forestKnown = false;
+        boolean rolled = false;
+        double roll = 0.0;
+        while (true) {
+            double low = combine(environmentLow, structureLow, mobMultiplier, biomeMultiplier);
+            double high = combine(environmentHigh, structureHigh, mobMultiplier, biomeMultiplier);
+            // Factors resolved so far, for the trace: base and cave until the forest is scanned, NaN for an unknown structure
+            double environment = environmentLow;
+            double structure = structureKnown ? structureLow : Double.NaN;
+            if (high <= 0.0) {
+                return finish(context, SpawnCounter.DENIED_ZERO_MULTIPLIER, environment, structure, mobMultiplier, biomeMultiplier, 0.0,
+                        !forestKnown, !structureKnown, start);
+            }
+
+            // shouldAllowSpawn draws exactly once whenever the final multiplier is positive
+            if (!rolled && low > 0.0) {
+                roll = SpawnRoll.roll(rollKey, context.getSpawnPos(),
+                        SpawnRoll.memberStream(context.getEntityType(), EarlySpawnGate.nextDraw()));
+                rolled = true;
+            }
+            if (rolled) {
+                // The trace records the bound the roll was decided against
+                if (roll < Math.min(1.0, low / config.referenceMax) / packAcceptance) {
+                    return finish(context, SpawnCounter.ALLOWED, environment, structure, mobMultiplier, biomeMultiplier, low,
+                            !forestKnown, !structureKnown, start);
+                }
+                if (roll >= Math.min(1.0, high / config.referenceMax) / packAcceptance) {
+                    return finish(context, SpawnCounter.DENIED_ROLL, environment, structure, mobMultiplier, biomeMultiplier, high,
+                            !forestKnown, !structureKnown, start);
+                }
+            }
+
+            if (!structureKnown) {
+                double structureMultiplier = context.isInDangerousStructure() ? config.dangerousStructureMultiplier : 1.0;
+                structureLow = structureMultiplier;
+                structureHigh = structureMultiplier;
+                structureKnown = true;
+            } else if (!forestKnown) {
+                double forestDensity = context.getForestDensity();
+                double forestMultiplier = forestDensity > 0.0 ? forestMultiplier(config, forestDensity) : 0.0;
+                environmentLow = Math.max(environmentLow, forestMultiplier);
+                environmentHigh = environmentLow;
+                forestKnown = true;
+            } else {
+                // All factors known: low == high, so one of the checks above has returned unless a bound
+                // is not a number (an infinite mob rule or biome factor); such a spawn has no usable multiplier
+                return finish(context, SpawnCounter.DENIED_ZERO_MULTIPLIER, environment, structure, mobMultiplier, biomeMultiplier, 0.0,
+                        false, false, start);
+            }
+        }
+    }
+
+    /**
+     * Make spawn decisions for several candidate positions of one mob type in a single pass
+     * (the members of a spawn pack, or a chunk's attempts for a tick).
+     *
+     * Environment probes are shared between positions through a {@link SpawnBatch}: positions in
+     * the same column, 4x4 cell or chunk reuse the first result. Decisions are made in list order
+     * and each draws the same roll as {@link #decide}, so the results equal calling it once per
+     * position. Inside a running pack the pack's batch is reused.
+     *
+     * @param level The level/world
+     * @param entityType The mob type being spawned
+     * @param spawnType The spawn reason
+     * @param positions Candidate positions
+     * @return One decision per position, in the same order
+     */
+    public static boolean[] decideAll(Level level, EntityType<?> entityType, MobSpawnType spawnType,
+                                      List<BlockPos> positions) {
+        SpawnBatch batch = EarlySpawnGate.currentBatch(level);
+        if (batch == null) {
+            batch = new SpawnBatch(level);
+        }
+
+        long rollKey = SpawnRoll.key(level);
+        boolean[] decisions = new boolean[positions.size()];
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i] = decide(new SpawnContext(level, positions.get(i), entityType, spawnType, batch), rollKey);
+        }
+        return decisions;
+    }
+
     /**
      * Convert multiplier to a boolean spawn decision using normalized probability.
      *
-     * Dynamically calculates reference maximum from config values to normalize multipliers:
+     * Uses the reference maximum precomputed from config values to normalize multipliers:
      * - The highest configured multiplier equals 100% acceptance
      * - Lower multipliers scale proportionally
      * - Higher multipliers = higher acceptance = more spawns
@@ -69,37 +236,93 @@ public class SpawnMultiplierCalculator {
      * - 5.0x → 100% acceptance (maximum spawns)
      *
      * @param multiplier The spawn multiplier from environment calculation
-     * @param random The random source for probabilistic decisions
+     * @param roll Uniform random value in [0, 1), see {@link SpawnRoll}
      * @return true if spawn should be allowed based on probability
      */
-    public static boolean shouldAllowSpawn(double multiplier, RandomSource random) {
+    public static boolean shouldAllowSpawn(double multiplier, double roll) {
         // Hard block for zero/negative multipliers
         if (multiplier <= 0.0) {
             return false;
         }
 
-        // Get config to find reference maximum
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
-
-        // Find the highest configured multiplier to use as reference
-        double referenceMax = Math.max(
-            config.maxCaveMultiplier,
-            Math.max(
-                config.maxForestMultiplier,
-                config.dangerousStructureMultiplier
-            )
-        );
-
-        // Ensure reference is at least 1.0 to avoid division issues
-        if (referenceMax < 1.0) {
-            referenceMax = 1.0;
-        }
+        // Highest configured multiplier (at least 1.0), precomputed when the config was compiled
+        double referenceMax = CompiledConfig.get().referenceMax;
 
         // Calculate acceptance probability: multiplier / referenceMax
         // Capped at 1.0 (100%) for multipliers >= referenceMax
         double acceptanceProbability = Math.min(1.0, multiplier / referenceMax);
 
         // Make probabilistic decision
-        return random.nextDouble() < acceptanceProbability;
+        return roll < acceptanceProbability;
+    }
+
+    /**
+     * Cave contribution at a given depth (scales from min to max).
+     *
+     * @param config The compiled config
+     * @param depth Cave depth from {@link LocationDetector#getCaveDepth}
+     * @return The cave multiplier
+     */
+    public static double caveMultiplier(CompiledConfig config, double depth) {
+        // getCaveDepth returns 1.0 at Y=60 and 5.0 at Y=-64
+        double depthRatio = (depth - 1.0) / 4.0; // Normalize to 0.0-1.0 (since depth is 1.0-5.0)
+        return config.minCaveMultiplier + config.caveMultiplierRange * depthRatio;
+    }
+
+    /**
+     * Forest contribution at a given density (scales from min to max).
+     *
+     * @param config The compiled config
+     * @param forestDensity Forest density from 0.0 to 1.0
+     * @return The forest multiplier
+     */
+    public static double forestMultiplier(CompiledConfig config, double forestDensity) {
+        // forestDensity is already 0.0-1.0
+        return config.minForestMultiplier + config.forestMultiplierRange * forestDensity;
+    }
+
+    /**
+     * Mob factor from the compiled evaluator for the context's mob type.
+     * Only evaluators with context-dependent stages are timed.
+     */
+    private static double mobFactor(SpawnContext context) {
+        MobEvaluator evaluator = MobEvaluators.forType(context.getEntityType());
+        if (evaluator.isConstant()) {
+            return evaluator.evaluate(context);
+        }
+        long ruleStart = SpawnStats.startTimer();
+        double factor = evaluator.evaluate(context);
+        SpawnStats.stopTimer(context.getStats(), SpawnProbe.RULE_EVALUATION, ruleStart);
+        return factor;
+    }
+
+    /**
+     * Final multiplier from its factors, multiplied in the same order as {@link #calculateMultiplier}.
+     * Monotonic in each factor when the mob and biome factors are positive, so it also combines bounds.
+     */
+    private static double combine(double environment, double structure, double mobMultiplier, double biomeMultiplier) {
+        return environment * structure * mobMultiplier * biomeMultiplier;
+    }
+
+    private static boolean isHostile(SpawnContext context) {
+        return context.getEntityType() != null && context.getEntityType().getCategory() == MobCategory.MONSTER;
+    }
+
+    private static boolean finish(SpawnContext context, SpawnCounter outcome, double environment, double structure,
+                                  double mobMultiplier, double biomeMultiplier, double multiplier,
+                                  boolean forestSkipped, boolean structureSkipped, long start) {
+        DimensionStats stats = context.getStats();
+        if (stats != null) {
+            SpawnStats.recordDecision(stats, outcome, start);
+            SpawnTrace.record(context.getLevel(), context.getSpawnPos(), context.getEntityType(), outcome,
+                    environment, structure, mobMultiplier, biomeMultiplier, multiplier);
+            if (forestSkipped) {
+                stats.increment(SpawnCounter.FOREST_SCAN_SKIPPED);
+            }
+            if (structureSkipped) {
+                stats.increment(SpawnCounter.STRUCTURE_LOOKUP_SKIPPED);
+            }
+        }
+        return outcome == SpawnCounter.ALLOWED;
     }
 }
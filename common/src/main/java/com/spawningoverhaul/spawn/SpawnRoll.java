@@ -0,0 +1,81 @@
+package com.spawningoverhaul.spawn;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+
+/**
+ * Stateless random values for spawn acceptance rolls.
+ *
+ * Every roll is a pure function of a key (world seed, dimension and game time), the position and
+ * a stream telling apart the rolls made at one position in one tick, hashed with the SplitMix64
+ * finalizer. Nothing is shared between threads and the level's own random source is never drawn
+ * from, so vanilla's random sequence is the same with or without the mod, and decisions can be
+ * replayed from their inputs by the simulation and debug tooling.
+ */
+public class SpawnRoll {
+
+    /**
+     * Stream of the early gate's section bound roll.
+     */
+    public static final long SECTION_GATE = -1L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Key for the rolls made in a level during its current tick.
+     *
+     * @param level The level being spawned in (client levels use seed 0)
+     * @return The roll key
+     */
+    public static long key(Level level) {
+        long seed = level instanceof ServerLevel serverLevel ? serverLevel.getSeed() : 0L;
+        return key(seed, level.dimension().location().hashCode(), level.getGameTime());
+    }
+
+    /**
+     * Key for the rolls made with the given inputs.
+     *
+     * @param seed World seed
+     * @param dimension Hash of the dimension ID
+     * @param gameTime Game time of the tick
+     * @return The roll key
+     */
+    public static long key(long seed, int dimension, long gameTime) {
+        return mix(mix(seed + dimension * GOLDEN_GAMMA) + gameTime * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Stream of a spawn decision for a mob type.
+     *
+     * @param entityType The mob type, or null
+     * @param draw Index of the decision among those made for the same pack
+     * @return The stream
+     */
+    public static long memberStream(EntityType<?> entityType, int draw) {
+        int typeId = entityType == null ? -1 : BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+        return ((long) typeId << 32) | (draw & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Uniform random value in [0, 1).
+     *
+     * @param key Key from {@link #key}
+     * @param pos Position the roll is made for
+     * @param stream Stream from {@link #memberStream}, or {@link #SECTION_GATE}
+     * @return The roll
+     */
+    public static double roll(long key, BlockPos pos, long stream) {
+        long hash = mix(mix(key + pos.asLong() * GOLDEN_GAMMA) + stream * GOLDEN_GAMMA);
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,46 +1,40 @@
 package com.spawningoverhaul.spawn;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.persist.ChunkSpawnSummary;
+import com.spawningoverhaul.spawn.persist.SpawnSummaryStore;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import com.spawningoverhaul.spawn.stats.SpawnStats;
+import it.unimi.dsi.fastutil.longs.Long2ByteLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
-import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.level.levelgen.structure.Structure;
 
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
- * High-performance structure detection using Guava cache.
- * Chunk-level granularity (16x16 blocks share cache entry) with 10-second TTL.
+ * High-performance structure detection using a per-level primitive cache.
+ * Chunk-level granularity (16x16 blocks share cache entry), keyed by packed ChunkPos with
+ * no allocation on the lookup path. Entries live until their chunk unloads.
+ * Cache misses only inspect structures referenced by the chunk (see {@link StructureClassification}).
+ * Offline levels (benchmarks, simulation) provide their structures through {@link StructureSource}.
+ *
+ * Not thread-safe: all access must happen on the level's ticking thread.
  */
 public class StructureCache {
 
-    // Hardcoded dangerous structures (increase spawns)
-    private static final Set<String> DANGEROUS_STRUCTURES = Set.of(
-            "minecraft:stronghold",
-            "minecraft:fortress",
-            "minecraft:monument",
-            "minecraft:mansion",
-            "minecraft:mineshaft",
-            "minecraft:dungeon"
-    );
-
-    // Hardcoded safe structures (no spawn modification)
-    private static final Set<String> SAFE_STRUCTURES = Set.of(
-            "minecraft:village"
-    );
-
-    // Cache: ChunkPos (as Long) -> Boolean (is dangerous structure present)
-    // 10 second TTL, chunk-level granularity
-    private static final Cache<CacheKey, Boolean> STRUCTURE_CACHE = CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.SECONDS)
-            .maximumSize(1000)
-            .build();
+    private static final byte ABSENT = 0;
+    private static final byte SAFE = 1;
+    private static final byte DANGEROUS = 2;
 
     /**
      * Check if a position is in a dangerous structure.
@@ -51,67 +45,121 @@ public class StructureCache {
      * @return true if in a dangerous structure
      */
     public static boolean isInDangerousStructure(Level level, BlockPos pos) {
-        if (!(level instanceof ServerLevel serverLevel)) {
+        if (!(level instanceof ServerLevel) && !(level instanceof StructureSource)) {
             return false;
         }
 
-        // Create cache key from chunk coordinates
-        int chunkX = pos.getX() >> 4;
-        int chunkZ = pos.getZ() >> 4;
-        CacheKey key = new CacheKey(serverLevel.dimension(), chunkX, chunkZ);
+        DimensionCache cache = forLevel(level);
 
         // Check cache first
-        Boolean cached = STRUCTURE_CACHE.getIfPresent(key);
-        if (cached != null) {
-            return cached;
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        byte cached = cache.results.get(key);
+        if (cached != ABSENT) {
+            cache.stats.increment(SpawnCounter.STRUCTURE_CACHE_HIT);
+            return cached == DANGEROUS;
         }
 
         // Cache miss - perform structure lookup
+        cache.stats.increment(SpawnCounter.STRUCTURE_CACHE_MISS);
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return checkStructureAt(level, (StructureSource) level, cache, key, pos);
+        }
+        // Only cache loaded chunks, so every entry is eventually evicted by an unload
+        LevelChunk chunk = serverLevel.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            return checkStructureAt(serverLevel, pos);
+        }
+
+        // An entry evicted from the cache is refilled from the chunk's saved summary, which is already current
+        byte stored = SpawnSummaryStore.storedStructure(chunk);
+        if (stored != ChunkSpawnSummary.STRUCTURE_UNKNOWN) {
+            boolean isDangerous = stored == ChunkSpawnSummary.STRUCTURE_DANGEROUS;
+            cache.put(key, isDangerous);
+            return isDangerous;
+        }
+
         boolean isDangerous = checkStructureAt(serverLevel, pos);
-        STRUCTURE_CACHE.put(key, isDangerous);
+        cache.put(key, isDangerous);
+        SpawnSummaryStore.storeStructure(chunk, isDangerous);
         return isDangerous;
     }
 
+    /**
+     * Cache a result restored from a chunk's saved summary.
+     *
+     * @param level The level the chunk was loaded into
+     * @param pos The loaded chunk
+     * @param dangerous Whether the chunk is in a dangerous structure
+     */
+    public static void restore(ServerLevel level, ChunkPos pos, boolean dangerous) {
+        forLevel(level).put(pos.toLong(), dangerous);
+    }
+
     /**
      * Perform actual structure lookup at a position.
-     * Checks against hardcoded dangerous/safe structures and config lists.
+     * Only structures referenced by the position's chunk are considered, and only those
+     * classified as dangerous need a bounding-box check.
      *
      * @param level The server level
      * @param pos The position to check
      * @return true if dangerous structure present
      */
     private static boolean checkStructureAt(ServerLevel level, BlockPos pos) {
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
-        var structureLookup = level.registryAccess().lookupOrThrow(Registries.STRUCTURE);
+        ChunkAccess chunk = level.getChunk(pos.getX() >> 4, pos.getZ() >> 4, ChunkStatus.STRUCTURE_REFERENCES, false);
+        if (chunk == null) {
+            return false;
+        }
+
+        Map<Structure, LongSet> references = chunk.getAllReferences();
+        if (references.isEmpty()) {
+            return false;
+        }
 
-        // Get all structures at this position
+        StructureClassification classification = StructureClassification.forRegistry(
+                level.registryAccess().registryOrThrow(Registries.STRUCTURE));
         var structureManager = level.structureManager();
+        return containsDangerousStructure(references.keySet(), classification,
+                structure -> structureManager.getStructureAt(pos, structure).isValid());
+    }
+
+    /**
+     * Structure lookup against an offline level, caching every chunk the source provides.
+     */
+    private static boolean checkStructureAt(Level level, StructureSource source, DimensionCache cache, long key, BlockPos pos) {
+        Iterable<Structure> references = source.getReferences(pos.getX() >> 4, pos.getZ() >> 4);
+        if (references == null) {
+            return false;
+        }
 
-        // Check each registered structure type
-        for (var entry : structureLookup.listElements().toList()) {
-            ResourceKey<Structure> structureKey = entry.key();
-            ResourceLocation structureId = structureKey.location();
-            String structureIdString = structureId.toString();
+        StructureClassification classification = StructureClassification.forRegistry(
+                level.registryAccess().registryOrThrow(Registries.STRUCTURE));
+        boolean isDangerous = containsDangerousStructure(references, classification,
+                structure -> source.isStructureAt(pos, structure));
+        cache.put(key, isDangerous);
+        return isDangerous;
+    }
+
+    /**
+     * Check referenced structures for a dangerous one that is actually present.
+     * Only structures classified as dangerous are passed to the (expensive) presence check.
+     *
+     * @param referenced Structures referenced by the chunk
+     * @param classification Classification for the structures' registry
+     * @param isPresent Bounding-box check for a structure at the position
+     * @return true if a dangerous structure is present
+     */
+    public static boolean containsDangerousStructure(Iterable<Structure> referenced, StructureClassification classification,
+                                                     Predicate<Structure> isPresent) {
+        for (Structure structure : referenced) {
+            if (classification.classify(structure) != StructureClassification.DANGEROUS) {
+                continue;
+            }
 
             // Check if structure is present at position
-            if (structureManager.getStructureAt(pos, entry.value()).isValid()) {
-                // Check if it's a safe structure (skip these)
-                if (SAFE_STRUCTURES.contains(structureIdString)) {
-                    continue;
-                }
-
-                if (config.additionalSafeStructures.contains(structureIdString)) {
-                    continue;
-                }
-
-                // Check if it's a dangerous structure
-                if (DANGEROUS_STRUCTURES.contains(structureIdString)) {
-                    return true;
-                }
-
-                if (config.additionalDangerousStructures.contains(structureIdString)) {
-                    return true;
-                }
+            if (isPresent.test(structure)) {
+                return true;
             }
         }
 
@@ -119,7 +167,77 @@ public class StructureCache {
     }
 
     /**
-     * Cache key combining dimension and chunk coordinates.
+     * Forget a chunk that is being unloaded.
+     *
+     * @param state The state of the chunk's level, from {@link LevelSpawnState#existing}
+     */
+    static void removeChunk(LevelSpawnState state, ChunkPos pos) {
+        state.structureCache().results.remove(pos.toLong());
+    }
+
+    /**
+     * Number of cached chunks in a level.
+     */
+    public static int size(ServerLevel level) {
+        return forLevel(level).results.size();
+    }
+
+    /**
+     * Number of lookups answered from the cache in a level.
+     */
+    public static long getHits(ServerLevel level) {
+        return SpawnStats.forLevel(level).get(SpawnCounter.STRUCTURE_CACHE_HIT);
+    }
+
+    /**
+     * Number of lookups that required a structure check in a level.
      */
-    private record CacheKey(ResourceKey<Level> dimension, int chunkX, int chunkZ) {}
+    public static long getMisses(ServerLevel level) {
+        return SpawnStats.forLevel(level).get(SpawnCounter.STRUCTURE_CACHE_MISS);
+    }
+
+    private static DimensionCache forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).structureCache();
+    }
+
+    /**
+     * Structure data of a level that is not a {@link ServerLevel} (offline tooling).
+     * Such levels are looked up through the same cache and classification as live ones.
+     */
+    public interface StructureSource {
+        /**
+         * Get the structures a chunk references.
+         *
+         * @return The structures, or null if the chunk is not available
+         */
+        Iterable<Structure> getReferences(int chunkX, int chunkZ);
+
+        /**
+         * Check whether a start of the structure referenced at the position contains it.
+         */
+        boolean isStructureAt(BlockPos pos, Structure structure);
+    }
+
+    /**
+     * Cached results for one level, counting into the level's {@link DimensionStats}.
+     * Held by the level's {@link LevelSpawnState}.
+     */
+    static class DimensionCache {
+        // ChunkPos (as Long) -> SAFE/DANGEROUS, ABSENT when not cached; in insertion order for eviction
+        final Long2ByteLinkedOpenHashMap results = new Long2ByteLinkedOpenHashMap();
+        final DimensionStats stats;
+
+        DimensionCache(DimensionStats stats) {
+            this.stats = stats;
+        }
+
+        void put(long key, boolean dangerous) {
+            // Unloads remove entries, so the cap is only a backstop: make room by dropping the oldest entry
+            if (results.size() >= CompiledConfig.get().structureCacheMaxChunks && !results.isEmpty()
+                    && !results.containsKey(key)) {
+                results.removeFirstByte();
+            }
+            results.put(key, dangerous ? DANGEROUS : SAFE);
+        }
+    }
 }
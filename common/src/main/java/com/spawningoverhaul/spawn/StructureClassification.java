@@ -0,0 +1,113 @@
+package com.spawningoverhaul.spawn;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import java.util.Set;
+
+/**
+ * Dangerous/safe/neutral classification of every registered structure.
+ * Built once per structure registry and compiled config, so spawn checks classify
+ * a structure with a single identity lookup instead of string comparisons.
+ */
+public class StructureClassification {
+
+    public static final byte NEUTRAL = 0;
+    public static final byte DANGEROUS = 1;
+    public static final byte SAFE = 2;
+
+    // Hardcoded dangerous structures (increase spawns)
+    private static final Set<String> DANGEROUS_STRUCTURES = Set.of(
+            "minecraft:stronghold",
+            "minecraft:fortress",
+            "minecraft:monument",
+            "minecraft:mansion",
+            "minecraft:mineshaft",
+            "minecraft:dungeon"
+    );
+
+    // Hardcoded safe structures (no spawn modification)
+    private static final Set<String> SAFE_STRUCTURES = Set.of(
+            "minecraft:village"
+    );
+
+    private static volatile StructureClassification current;
+
+    private final Registry<Structure> registry;
+    private final CompiledConfig config;
+    // Structure -> DANGEROUS or SAFE, neutral structures are absent
+    private final Reference2ByteOpenHashMap<Structure> classes;
+
+    private StructureClassification(Registry<Structure> registry, CompiledConfig config, Reference2ByteOpenHashMap<Structure> classes) {
+        this.registry = registry;
+        this.config = config;
+        this.classes = classes;
+    }
+
+    /**
+     * Get the classification for a structure registry, building it if the registry
+     * or the config changed since the last build.
+     *
+     * @param registry The level's structure registry
+     * @return The classification table
+     */
+    public static StructureClassification forRegistry(Registry<Structure> registry) {
+        StructureClassification classification = current;
+        CompiledConfig config = CompiledConfig.get();
+        if (classification == null || classification.registry != registry || classification.config != config) {
+            classification = build(registry, config);
+            current = classification;
+        }
+        return classification;
+    }
+
+    /**
+     * Discard the table so it is rebuilt from the current config on next use.
+     */
+    public static void invalidate() {
+        current = null;
+    }
+
+    /**
+     * Classify a structure.
+     *
+     * @return {@link #DANGEROUS}, {@link #SAFE} or {@link #NEUTRAL}
+     */
+    public byte classify(Structure structure) {
+        return classes.getByte(structure);
+    }
+
+    /**
+     * Classify a structure by its ID, without a registry.
+     *
+     * @param key The structure's key
+     * @param config The config providing the additional lists
+     * @return {@link #DANGEROUS}, {@link #SAFE} or {@link #NEUTRAL}
+     */
+    public static byte classify(ResourceKey<Structure> key, CompiledConfig config) {
+        String idString = key.location().toString();
+
+        // Safe wins over dangerous when a structure is listed in both
+        if (SAFE_STRUCTURES.contains(idString) || config.getAdditionalSafeStructures().contains(key)) {
+            return SAFE;
+        }
+        if (DANGEROUS_STRUCTURES.contains(idString) || config.getAdditionalDangerousStructures().contains(key)) {
+            return DANGEROUS;
+        }
+        return NEUTRAL;
+    }
+
+    private static StructureClassification build(Registry<Structure> registry, CompiledConfig config) {
+        Reference2ByteOpenHashMap<Structure> classes = new Reference2ByteOpenHashMap<>();
+        for (var entry : registry.entrySet()) {
+            byte structureClass = classify(entry.getKey(), config);
+            if (structureClass != NEUTRAL) {
+                classes.put(entry.getValue(), structureClass);
+            }
+        }
+        return new StructureClassification(registry, config, classes);
+    }
+}
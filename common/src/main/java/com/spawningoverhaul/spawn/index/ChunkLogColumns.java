@@ -0,0 +1,196 @@
+package com.spawningoverhaul.spawn.index;
+
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Log occupancy summary for a single chunk.
+ * Stores one bit per block for each section: 64 longs (512 bytes) where bit
+ * (y << 8) | (z << 4) | x is set when the block at those section-local coordinates is a log.
+ * Each long holds 4 rows of 16 columns at one Y, so one layer of a horizontal footprint is
+ * 4 longs and counting logs in it is 4 masked {@link Long#bitCount} calls.
+ * Sections without logs store no masks.
+ */
+public class ChunkLogColumns {
+
+    /**
+     * Longs per section mask.
+     */
+    public static final int SECTION_LONGS = 64;
+
+    private final int minSection;
+    private final long[][] sections;
+
+    private ChunkLogColumns(int minSection, int sectionCount) {
+        this.minSection = minSection;
+        this.sections = new long[sectionCount][];
+    }
+
+    /**
+     * Build the summary for a loaded chunk.
+     * Sections whose palette cannot contain a log are skipped without reading any blocks.
+     *
+     * @param chunk The chunk to summarize
+     * @return The log summary for the chunk
+     */
+    public static ChunkLogColumns build(LevelChunk chunk) {
+        return build(chunk.getSections(), chunk.getMinSection());
+    }
+
+    /**
+     * Build the summary from raw chunk sections.
+     *
+     * @param chunkSections The chunk's sections, bottom to top
+     * @param minSection Section Y coordinate of the first entry
+     * @return The log summary for the sections
+     */
+    public static ChunkLogColumns build(LevelChunkSection[] chunkSections, int minSection) {
+        ChunkLogColumns columns = new ChunkLogColumns(minSection, chunkSections.length);
+
+        for (int i = 0; i < chunkSections.length; i++) {
+            LevelChunkSection section = chunkSections[i];
+            if (section.hasOnlyAir() || !section.maybeHas(LogIndex::isLog)) {
+                continue;
+            }
+
+            long[] masks = null;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (LogIndex.isLog(section.getBlockState(x, y, z))) {
+                            if (masks == null) {
+                                masks = new long[SECTION_LONGS];
+                            }
+                            masks[wordIndex(y, z)] |= 1L << bitIndex(x, z);
+                        }
+                    }
+                }
+            }
+            columns.sections[i] = masks;
+        }
+
+        return columns;
+    }
+
+    /**
+     * Deep copy, safe to hand to another thread while this summary keeps being patched.
+     */
+    public ChunkLogColumns copy() {
+        ChunkLogColumns copy = new ChunkLogColumns(minSection, sections.length);
+        for (int i = 0; i < sections.length; i++) {
+            copy.sections[i] = sections[i] == null ? null : sections[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Section Y coordinate of the lowest section containing logs.
+     *
+     * @return The section Y, or Integer.MAX_VALUE if the chunk has no logs
+     */
+    public int lowestLogSection() {
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null) {
+                return minSection + i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Section Y coordinate of the highest section containing logs.
+     *
+     * @return The section Y, or Integer.MIN_VALUE if the chunk has no logs
+     */
+    public int highestLogSection() {
+        for (int i = sections.length - 1; i >= 0; i--) {
+            if (sections[i] != null) {
+                return minSection + i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Get the occupancy mask for a section.
+     *
+     * @param sectionY The section Y coordinate (block Y >> 4)
+     * @return 64 longs, bit (y << 8) | (z << 4) | x set for logs, or null if the section has no logs
+     */
+    public long[] section(int sectionY) {
+        int index = sectionY - minSection;
+        if (index < 0 || index >= sections.length) {
+            return null;
+        }
+        return sections[index];
+    }
+
+    /**
+     * Count logs of a section mask inside a horizontal footprint, over a range of layers.
+     * The footprint uses the layout of one layer: row z of the chunk is bits ((z & 3) << 4) to
+     * ((z & 3) << 4) + 15 of footprint word z >> 2.
+     *
+     * @param masks Section mask from {@link #section}
+     * @param localYMin Lowest section-local Y (0-15)
+     * @param localYMax Highest section-local Y (0-15)
+     * @param footprint0 Footprint of rows 0-3
+     * @param footprint1 Footprint of rows 4-7
+     * @param footprint2 Footprint of rows 8-11
+     * @param footprint3 Footprint of rows 12-15
+     * @return Number of logs
+     */
+    public static int countInFootprint(long[] masks, int localYMin, int localYMax,
+                                       long footprint0, long footprint1, long footprint2, long footprint3) {
+        int count = 0;
+        for (int word = localYMin << 2, end = (localYMax + 1) << 2; word < end; word += 4) {
+            count += Long.bitCount(masks[word] & footprint0) + Long.bitCount(masks[word + 1] & footprint1)
+                    + Long.bitCount(masks[word + 2] & footprint2) + Long.bitCount(masks[word + 3] & footprint3);
+        }
+        return count;
+    }
+
+    /**
+     * Update a single block in the summary.
+     *
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @param isLog Whether the block is now a log
+     * @return Whether the summary changed
+     */
+    public boolean set(int x, int y, int z, boolean isLog) {
+        int index = (y >> 4) - minSection;
+        if (index < 0 || index >= sections.length) {
+            return false;
+        }
+
+        long[] masks = sections[index];
+        if (masks == null) {
+            if (!isLog) {
+                return false;
+            }
+            masks = new long[SECTION_LONGS];
+            sections[index] = masks;
+        }
+
+        int word = wordIndex(y & 15, z & 15);
+        long bit = 1L << bitIndex(x & 15, z & 15);
+        if (((masks[word] & bit) != 0) == isLog) {
+            return false;
+        }
+        if (isLog) {
+            masks[word] |= bit;
+        } else {
+            masks[word] &= ~bit;
+        }
+        return true;
+    }
+
+    private static int wordIndex(int localY, int localZ) {
+        return (localY << 2) | (localZ >> 2);
+    }
+
+    private static int bitIndex(int localX, int localZ) {
+        return ((localZ & 3) << 4) | localX;
+    }
+}
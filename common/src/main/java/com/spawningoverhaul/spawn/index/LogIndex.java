@@ -0,0 +1,360 @@
+package com.spawningoverhaul.spawn.index;
+
+import com.spawningoverhaul.spawn.LevelSpawnState;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.Arrays;
+
+/**
+ * Per-level index of log blocks in loaded chunks.
+ * Chunks are summarized once when they load and patched on every log placement or removal,
+ * so a forest density query only reads precomputed occupancy masks instead of block states.
+ *
+ * Results are identical to a block-by-block scan for loaded chunks.
+ * Unloaded chunks count as containing no logs (a block scan would force them to load).
+ *
+ * {@link #countLogsSummed} answers from per-layer summed-area tables built on top of the chunk
+ * summaries ({@link RegionLogSums}), at a cost that does not depend on the scan radius or the
+ * query's Y. A region's tables are dropped whenever one of its chunks is summarized or forgotten.
+ *
+ * Not thread-safe: all access must happen on the level's ticking thread.
+ */
+public class LogIndex {
+
+    // Rectangles per side of the center row in countLogsSummed
+    private static final int SLABS_PER_SIDE = 4;
+    // Precomputed rectangles for the radii the config allows
+    private static final int[][] SLABS = new int[31][];
+
+    static {
+        for (int radius = 0; radius < SLABS.length; radius++) {
+            SLABS[radius] = slabs(radius);
+        }
+    }
+
+    // ChunkPos (as Long) -> log summary
+    private final Long2ObjectOpenHashMap<ChunkLogColumns> chunks = new Long2ObjectOpenHashMap<>();
+    // Region (64x64 columns, keyed like a ChunkPos) -> per-layer summed-area tables
+    private final Long2ObjectOpenHashMap<RegionLogSums> regions = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Get the index for a level, creating it on first use.
+     *
+     * @param level The level/world
+     * @return The log index held by the level's {@link LevelSpawnState}
+     */
+    public static LogIndex forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).logIndex();
+    }
+
+    /**
+     * Check whether a block state counts as a log for forest detection.
+     */
+    public static boolean isLog(BlockState state) {
+        return state.is(BlockTags.LOGS);
+    }
+
+    /**
+     * Summarize a freshly loaded chunk.
+     */
+    public void indexChunk(LevelChunk chunk) {
+        chunks.put(chunk.getPos().toLong(), ChunkLogColumns.build(chunk));
+        invalidateRegion(chunk.getPos().x, chunk.getPos().z);
+    }
+
+    /**
+     * Store a summary built elsewhere (offline tooling, restored data).
+     */
+    public void putChunk(int chunkX, int chunkZ, ChunkLogColumns columns) {
+        chunks.put(ChunkPos.asLong(chunkX, chunkZ), columns);
+        invalidateRegion(chunkX, chunkZ);
+    }
+
+    /**
+     * Forget a chunk that is being unloaded.
+     */
+    public void removeChunk(ChunkPos pos) {
+        chunks.remove(pos.toLong());
+        invalidateRegion(pos.x, pos.z);
+    }
+
+    /**
+     * Patch the index after a block changed between log and non-log.
+     * Chunks that have not been indexed yet are ignored; they are summarized on first query.
+     *
+     * @param pos The changed position
+     * @param isLog Whether the new block is a log
+     */
+    public void onBlockChanged(BlockPos pos, boolean isLog) {
+        ChunkLogColumns columns = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (columns != null && columns.set(pos.getX(), pos.getY(), pos.getZ(), isLog)) {
+            RegionLogSums sums = regions.get(ChunkPos.asLong(pos.getX() >> RegionLogSums.SHIFT, pos.getZ() >> RegionLogSums.SHIFT));
+            if (sums != null) {
+                sums.patch(pos.getX() & RegionLogSums.MASK, pos.getY(), pos.getZ() & RegionLogSums.MASK, isLog ? 1 : -1);
+            }
+        }
+    }
+
+    /**
+     * Number of chunks currently summarized.
+     */
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Count logs in a vertical cylinder around a position.
+     * Uses the same circle test as the block scan (dx² + dz² ≤ radius²).
+     * Per chunk, the circle is turned into a footprint mask and each layer of the band is counted
+     * with 4 masked {@link Long#bitCount} calls ({@link ChunkLogColumns#countInFootprint}).
+     *
+     * @param heightAccessor The level/world (chunks missing from the index are summarized lazily when it is a {@link Level})
+     * @param center The cylinder center
+     * @param radius Horizontal radius in blocks
+     * @param verticalRange Blocks scanned above and below the center
+     * @param maxLogs Stop counting once this many logs are found
+     * @return Number of logs found; counting stops at the first chunk that reaches maxLogs
+     */
+    public int countLogs(LevelHeightAccessor heightAccessor, BlockPos center, int radius, int verticalRange, int maxLogs) {
+        int yMin = Math.max(center.getY() - verticalRange, heightAccessor.getMinBuildHeight());
+        int yMax = Math.min(center.getY() + verticalRange, heightAccessor.getMaxBuildHeight() - 1);
+        if (yMin > yMax) {
+            return 0;
+        }
+
+        int minSectionY = yMin >> 4;
+        int maxSectionY = yMax >> 4;
+        int centerX = center.getX();
+        int centerZ = center.getZ();
+        int radiusSq = radius * radius;
+        int logCount = 0;
+
+        for (int chunkZ = (centerZ - radius) >> 4; chunkZ <= (centerZ + radius) >> 4; chunkZ++) {
+            int zStart = Math.max(centerZ - radius, chunkZ << 4);
+            int zEnd = Math.min(centerZ + radius, (chunkZ << 4) + 15);
+
+            for (int chunkX = (centerX - radius) >> 4; chunkX <= (centerX + radius) >> 4; chunkX++) {
+                ChunkLogColumns columns = getOrIndex(heightAccessor, chunkX, chunkZ);
+                if (columns == null || !hasLogSection(columns, minSectionY, maxSectionY)) {
+                    continue;
+                }
+
+                // Footprint of the circle in this chunk: one run of columns per row
+                int chunkMinX = chunkX << 4;
+                long footprint0 = 0L;
+                long footprint1 = 0L;
+                long footprint2 = 0L;
+                long footprint3 = 0L;
+                for (int z = zStart; z <= zEnd; z++) {
+                    int dz = z - centerZ;
+                    int halfWidth = (int) Math.sqrt(radiusSq - dz * dz);
+                    int xStart = Math.max(centerX - halfWidth, chunkMinX) - chunkMinX;
+                    int xEnd = Math.min(centerX + halfWidth, chunkMinX + 15) - chunkMinX;
+                    if (xStart > xEnd) {
+                        continue;
+                    }
+                    long row = ((1L << (xEnd - xStart + 1)) - 1L) << (((z & 3) << 4) + xStart);
+                    switch ((z & 15) >> 2) {
+                        case 0 -> footprint0 |= row;
+                        case 1 -> footprint1 |= row;
+                        case 2 -> footprint2 |= row;
+                        default -> footprint3 |= row;
+                    }
+                }
+
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    long[] masks = columns.section(sectionY);
+                    if (masks == null) {
+                        continue;
+                    }
+                    int sectionBottom = sectionY << 4;
+                    logCount += ChunkLogColumns.countInFootprint(masks,
+                            Math.max(yMin - sectionBottom, 0), Math.min(yMax - sectionBottom, 15),
+                            footprint0, footprint1, footprint2, footprint3);
+                }
+
+                // Early exit if maximum reached
+                if (logCount >= maxLogs) {
+                    return logCount;
+                }
+            }
+        }
+
+        return logCount;
+    }
+
+    /**
+     * Get a chunk's summary, summarizing it first if it is loaded but not indexed yet.
+     *
+     * @param heightAccessor The level/world (missing chunks are only summarized when it is a {@link Level})
+     * @return The summary, or null if the chunk is not available
+     */
+    public ChunkLogColumns getOrIndex(LevelHeightAccessor heightAccessor, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkLogColumns columns = chunks.get(key);
+        if (columns == null && heightAccessor instanceof Level level) {
+            // Chunk loaded before indexing was enabled; summarize lazily
+            LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+            if (chunk == null) {
+                return null;
+            }
+            columns = ChunkLogColumns.build(chunk);
+            chunks.put(key, columns);
+            invalidateRegion(chunkX, chunkZ);
+        }
+        return columns;
+    }
+
+    /**
+     * Approximate the number of logs in a vertical cylinder from summed-area tables.
+     * The circle is covered by rectangles stacked along Z, each as wide as the circle is on average
+     * over its rows, so the cost is four table reads per rectangle and layer with logs, whatever the radius.
+     * The count matches {@link #countLogs} except for logs near the edge of the circle.
+     *
+     * @param heightAccessor The level/world (chunks missing from the index are summarized lazily when it is a {@link Level})
+     * @param center The cylinder center
+     * @param radius Horizontal radius in blocks
+     * @param verticalRange Blocks scanned above and below the center
+     * @return Approximate number of logs
+     */
+    public int countLogsSummed(LevelHeightAccessor heightAccessor, BlockPos center, int radius, int verticalRange) {
+        int yMin = Math.max(center.getY() - verticalRange, heightAccessor.getMinBuildHeight());
+        int yMax = Math.min(center.getY() + verticalRange, heightAccessor.getMaxBuildHeight() - 1);
+        if (yMin > yMax) {
+            return 0;
+        }
+
+        int[] slabs = radius < SLABS.length ? SLABS[radius] : slabs(radius);
+        int centerX = center.getX();
+        int centerZ = center.getZ();
+        int logCount = 0;
+        for (int i = 0; i < slabs.length; i += 3) {
+            logCount += sumRectangle(heightAccessor, centerX - slabs[i + 2], centerZ + slabs[i],
+                    centerX + slabs[i + 2], centerZ + slabs[i + 1], yMin, yMax);
+        }
+        return logCount;
+    }
+
+    /**
+     * Number of logs in a block box (inclusive bounds), one table lookup per region and layer it overlaps.
+     */
+    private int sumRectangle(LevelHeightAccessor heightAccessor, int minX, int minZ, int maxX, int maxZ, int yMin, int yMax) {
+        int logCount = 0;
+        for (int regionZ = minZ >> RegionLogSums.SHIFT; regionZ <= maxZ >> RegionLogSums.SHIFT; regionZ++) {
+            int regionMinZ = regionZ << RegionLogSums.SHIFT;
+            int localMinZ = Math.max(minZ, regionMinZ) - regionMinZ;
+            int localMaxZ = Math.min(maxZ, regionMinZ + RegionLogSums.MASK) - regionMinZ;
+
+            for (int regionX = minX >> RegionLogSums.SHIFT; regionX <= maxX >> RegionLogSums.SHIFT; regionX++) {
+                int regionMinX = regionX << RegionLogSums.SHIFT;
+                int localMinX = Math.max(minX, regionMinX) - regionMinX;
+                int localMaxX = Math.min(maxX, regionMinX + RegionLogSums.MASK) - regionMinX;
+                for (int sectionY = yMin >> 4; sectionY <= yMax >> 4; sectionY++) {
+                    short[][] layers = regionSection(heightAccessor, regionX, regionZ, sectionY);
+                    int sectionBottom = sectionY << 4;
+                    for (int layer = Math.max(yMin - sectionBottom, 0), top = Math.min(yMax - sectionBottom, 15); layer <= top; layer++) {
+                        if (layers[layer] != null) {
+                            logCount += RegionLogSums.sum(layers[layer], localMinX, localMinZ, localMaxX, localMaxZ);
+                        }
+                    }
+                }
+            }
+        }
+        return logCount;
+    }
+
+    /**
+     * Get a region's layer tables for a section, building them from the chunk summaries if needed.
+     */
+    private short[][] regionSection(LevelHeightAccessor heightAccessor, int regionX, int regionZ, int sectionY) {
+        long regionKey = ChunkPos.asLong(regionX, regionZ);
+        RegionLogSums sums = regions.get(regionKey);
+        short[][] layers = sums == null ? null : sums.get(sectionY);
+        if (layers != null) {
+            return layers;
+        }
+
+        // Summarizing missing chunks drops the region's tables, so gather the chunks first
+        int chunksPerSide = RegionLogSums.SIZE >> 4;
+        ChunkLogColumns[] regionChunks = new ChunkLogColumns[chunksPerSide * chunksPerSide];
+        for (int z = 0; z < chunksPerSide; z++) {
+            for (int x = 0; x < chunksPerSide; x++) {
+                regionChunks[z * chunksPerSide + x] = getOrIndex(heightAccessor, regionX * chunksPerSide + x, regionZ * chunksPerSide + z);
+            }
+        }
+        layers = RegionLogSums.build(regionChunks, sectionY);
+
+        sums = regions.get(regionKey);
+        if (sums == null) {
+            sums = new RegionLogSums();
+            regions.put(regionKey, sums);
+        }
+        sums.put(sectionY, layers);
+        return layers;
+    }
+
+    private void invalidateRegion(int chunkX, int chunkZ) {
+        if (!regions.isEmpty()) {
+            regions.remove(ChunkPos.asLong(chunkX >> (RegionLogSums.SHIFT - 4), chunkZ >> (RegionLogSums.SHIFT - 4)));
+        }
+    }
+
+    /**
+     * Rectangles covering a circle, as (minDz, maxDz, halfWidth) triples relative to the center.
+     * Slab boundaries are spaced evenly along the arc, so slabs are thinner where the circle narrows quickly.
+     */
+    private static int[] slabs(int radius) {
+        int[] bounds = new int[SLABS_PER_SIDE + 1];
+        for (int i = 0; i <= SLABS_PER_SIDE; i++) {
+            bounds[i] = (int) Math.round((radius + 1) * Math.sin(i * Math.PI / (2 * SLABS_PER_SIDE)));
+        }
+
+        int radiusSq = radius * radius;
+        int[] slabs = new int[(SLABS_PER_SIDE * 2 - 1) * 3];
+        int length = 0;
+        for (int i = 0; i < SLABS_PER_SIDE; i++) {
+            int low = bounds[i];
+            int high = bounds[i + 1] - 1;
+            if (high < low) {
+                continue;
+            }
+
+            // Same block count as the exact rows of the slab
+            int halfWidths = 0;
+            for (int dz = low; dz <= high; dz++) {
+                halfWidths += (int) Math.sqrt(radiusSq - dz * dz);
+            }
+            int halfWidth = Math.round((float) halfWidths / (high - low + 1));
+
+            if (low == 0) {
+                slabs[length++] = -high;
+                slabs[length++] = high;
+                slabs[length++] = halfWidth;
+            } else {
+                slabs[length++] = low;
+                slabs[length++] = high;
+                slabs[length++] = halfWidth;
+                slabs[length++] = -high;
+                slabs[length++] = -low;
+                slabs[length++] = halfWidth;
+            }
+        }
+        return Arrays.copyOf(slabs, length);
+    }
+
+    private static boolean hasLogSection(ChunkLogColumns columns, int minSectionY, int maxSectionY) {
+        for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+            if (columns.section(sectionY) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
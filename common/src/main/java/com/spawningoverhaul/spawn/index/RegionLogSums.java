@@ -0,0 +1,135 @@
+package com.spawningoverhaul.spawn.index;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+/**
+ * Summed-area tables of log counts for one 64x64 column region (4x4 chunks), one per Y layer.
+ * Entry (x, z) of a layer's table holds the number of logs on that layer in all columns west of x
+ * and north of z, so the count in any rectangle of a layer takes four reads and any band of layers
+ * is answered by reading the tables of its layers, whatever its height or position.
+ *
+ * Tables are built a whole section (16 layers) at a time from the region's {@link ChunkLogColumns}
+ * the first time the section is queried, and patched in place when a log is placed or broken.
+ * Layers without logs have no table. Counts fit a short: a layer holds at most 4096 logs.
+ */
+class RegionLogSums {
+
+    static final int SHIFT = 6;
+    static final int SIZE = 1 << SHIFT;
+    static final int MASK = SIZE - 1;
+    private static final int STRIDE = SIZE + 1;
+    private static final int CHUNKS_PER_SIDE = SIZE >> 4;
+
+    // Section Y -> table per section-local layer (null for layers without logs)
+    private final Int2ObjectOpenHashMap<short[][]> sections = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Get the layer tables of a section, if they were built.
+     */
+    short[][] get(int sectionY) {
+        return sections.get(sectionY);
+    }
+
+    /**
+     * Store the layer tables of a section.
+     */
+    void put(int sectionY, short[][] layers) {
+        sections.put(sectionY, layers);
+    }
+
+    /**
+     * Apply a log placement (+1) or removal (-1) to the table of the block's layer, if its section was built.
+     *
+     * @param localX Block X within the region (0-63)
+     * @param y Block Y coordinate
+     * @param localZ Block Z within the region (0-63)
+     * @param delta Change in log count
+     */
+    void patch(int localX, int y, int localZ, int delta) {
+        short[][] layers = sections.get(y >> 4);
+        if (layers == null) {
+            return;
+        }
+        short[] table = layers[y & 15];
+        if (table == null) {
+            table = new short[STRIDE * STRIDE];
+            layers[y & 15] = table;
+        }
+
+        // Every prefix sum whose rectangle includes the column
+        for (int z = localZ + 1; z <= SIZE; z++) {
+            int row = z * STRIDE;
+            for (int x = localX + 1; x <= SIZE; x++) {
+                table[row + x] += (short) delta;
+            }
+        }
+    }
+
+    /**
+     * Build the layer tables of a section.
+     *
+     * @param chunks Log summaries of the region's chunks indexed by (localChunkZ << 2) | localChunkX, null if not loaded
+     * @param sectionY Section Y coordinate
+     * @return One table per section-local layer, null for layers without logs
+     */
+    static short[][] build(ChunkLogColumns[] chunks, int sectionY) {
+        long[][] masks = new long[chunks.length][];
+        boolean any = false;
+        for (int i = 0; i < chunks.length; i++) {
+            masks[i] = chunks[i] == null ? null : chunks[i].section(sectionY);
+            any |= masks[i] != null;
+        }
+
+        short[][] layers = new short[16][];
+        if (!any) {
+            return layers;
+        }
+        for (int layer = 0; layer < 16; layer++) {
+            if (hasLogs(masks, layer)) {
+                layers[layer] = buildLayer(masks, layer);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * Number of logs in a rectangle of a layer, inclusive bounds in region-local coordinates.
+     */
+    static int sum(short[] table, int minX, int minZ, int maxX, int maxZ) {
+        int top = minZ * STRIDE;
+        int bottom = (maxZ + 1) * STRIDE;
+        return table[bottom + maxX + 1] - table[top + maxX + 1] - table[bottom + minX] + table[top + minX];
+    }
+
+    private static boolean hasLogs(long[][] masks, int layer) {
+        int word = layer << 2;
+        for (long[] chunkMasks : masks) {
+            if (chunkMasks != null && (chunkMasks[word] | chunkMasks[word + 1] | chunkMasks[word + 2] | chunkMasks[word + 3]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static short[] buildLayer(long[][] masks, int layer) {
+        short[] table = new short[STRIDE * STRIDE];
+        for (int z = 0; z < SIZE; z++) {
+            int row = (z + 1) * STRIDE;
+            int previousRow = z * STRIDE;
+            // One 16-bit row of a layer word per chunk (see ChunkLogColumns)
+            int word = (layer << 2) | ((z & 15) >> 2);
+            int shift = (z & 3) << 4;
+            int rowLogs = 0;
+            for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+                long[] chunkMasks = masks[((z >> 4) * CHUNKS_PER_SIDE) + chunkX];
+                int bits = chunkMasks == null ? 0 : (int) (chunkMasks[word] >>> shift) & 0xFFFF;
+                int base = (chunkX << 4) + 1;
+                for (int x = 0; x < 16; x++) {
+                    rowLogs += (bits >>> x) & 1;
+                    table[row + base + x] = (short) (table[previousRow + base + x] + rowLogs);
+                }
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,126 @@
+package com.spawningoverhaul.spawn.persist;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Spawn environment of one chunk as saved with the chunk (see {@link SpawnSummaryStore}).
+ *
+ * Holds the precomputed sky visibility (lowest Y seeing the sky per column) and forest density
+ * cells of {@link com.spawningoverhaul.spawn.precompute.PrecomputeGrid}, and the chunk's
+ * structure classification from {@link com.spawningoverhaul.spawn.StructureCache}.
+ * Either part may be missing. Immutable; updates create a new summary.
+ *
+ * @param stamp Mod version and config stamp the summary was computed with
+ * @param structure {@link #STRUCTURE_UNKNOWN}, {@link #STRUCTURE_SAFE} or {@link #STRUCTURE_DANGEROUS}
+ * @param skyBottom Per column (z << 4 | x): lowest Y seeing the sky, null if the environment is not stored
+ * @param forestMinY Lowest Y with a forest density
+ * @param forestHeight Number of Y levels with a forest density
+ * @param forest Per 4x4 cell, then per Y from forestMinY; null when no logs are in reach
+ */
+public record ChunkSpawnSummary(int stamp, byte structure, short[] skyBottom, int forestMinY, int forestHeight,
+                                float[] forest) {
+
+    /**
+     * Version of the stored layout, part of every stamp.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    public static final byte STRUCTURE_UNKNOWN = 0;
+    public static final byte STRUCTURE_SAFE = 1;
+    public static final byte STRUCTURE_DANGEROUS = 2;
+
+    // Arrays are stored as int arrays: two sky heights per int, forest densities as float bits
+    public static final Codec<ChunkSpawnSummary> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.INT.fieldOf("stamp").forGetter(ChunkSpawnSummary::stamp),
+            Codec.BYTE.optionalFieldOf("structure", STRUCTURE_UNKNOWN).forGetter(ChunkSpawnSummary::structure),
+            Codec.INT_STREAM.optionalFieldOf("sky_bottom").forGetter(summary -> summary.skyBottom == null
+                    ? Optional.empty() : Optional.of(packShorts(summary.skyBottom))),
+            Codec.INT.optionalFieldOf("forest_min_y", 0).forGetter(ChunkSpawnSummary::forestMinY),
+            Codec.INT.optionalFieldOf("forest_height", 0).forGetter(ChunkSpawnSummary::forestHeight),
+            Codec.INT_STREAM.optionalFieldOf("forest").forGetter(summary -> summary.forest == null
+                    ? Optional.empty() : Optional.of(IntStream.range(0, summary.forest.length)
+                            .map(i -> Float.floatToRawIntBits(summary.forest[i]))))
+    ).apply(instance, ChunkSpawnSummary::decode));
+
+    /**
+     * Summary with no stored parts.
+     */
+    public static ChunkSpawnSummary empty(int stamp) {
+        return new ChunkSpawnSummary(stamp, STRUCTURE_UNKNOWN, null, 0, 0, null);
+    }
+
+    /**
+     * Copy with the structure classification replaced.
+     */
+    public ChunkSpawnSummary withStructure(byte structure) {
+        return new ChunkSpawnSummary(stamp, structure, skyBottom, forestMinY, forestHeight, forest);
+    }
+
+    /**
+     * Copy with the precomputed environment replaced.
+     */
+    public ChunkSpawnSummary withEnvironment(short[] skyBottom, int forestMinY, int forestHeight, float[] forest) {
+        return new ChunkSpawnSummary(stamp, structure, skyBottom, forestMinY, forestHeight, forest);
+    }
+
+    /**
+     * Copy without the precomputed environment.
+     */
+    public ChunkSpawnSummary withoutEnvironment() {
+        return new ChunkSpawnSummary(stamp, structure, null, 0, 0, null);
+    }
+
+    public boolean hasEnvironment() {
+        return skyBottom != null;
+    }
+
+    // Summaries compare by content, so a store of what the chunk already holds is recognized
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ChunkSpawnSummary other && stamp == other.stamp && structure == other.structure
+                && forestMinY == other.forestMinY && forestHeight == other.forestHeight
+                && Arrays.equals(skyBottom, other.skyBottom) && Arrays.equals(forest, other.forest);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(stamp, structure, forestMinY, forestHeight, Arrays.hashCode(skyBottom), Arrays.hashCode(forest));
+    }
+
+    private static ChunkSpawnSummary decode(int stamp, byte structure, Optional<IntStream> packedSkyBottom,
+                                            int forestMinY, int forestHeight, Optional<IntStream> forestBits) {
+        int[] packed = packedSkyBottom.map(IntStream::toArray).orElse(null);
+        int[] bits = forestBits.map(IntStream::toArray).orElse(null);
+
+        // A damaged environment is dropped and recomputed, the structure classification is kept
+        if (packed == null || packed.length != 128 || forestHeight < 0
+                || (bits != null && bits.length != 16 * forestHeight)) {
+            return new ChunkSpawnSummary(stamp, structure, null, 0, 0, null);
+        }
+
+        short[] skyBottom = new short[256];
+        for (int i = 0; i < packed.length; i++) {
+            skyBottom[i << 1] = (short) packed[i];
+            skyBottom[(i << 1) + 1] = (short) (packed[i] >> 16);
+        }
+        float[] forest = null;
+        if (bits != null) {
+            forest = new float[bits.length];
+            for (int i = 0; i < bits.length; i++) {
+                forest[i] = Float.intBitsToFloat(bits[i]);
+            }
+        }
+        return new ChunkSpawnSummary(stamp, structure, skyBottom, forestMinY, forestHeight, forest);
+    }
+
+    private static IntStream packShorts(short[] values) {
+        return IntStream.range(0, values.length >> 1)
+                .map(i -> (values[i << 1] & 0xFFFF) | (values[(i << 1) + 1] << 16));
+    }
+}
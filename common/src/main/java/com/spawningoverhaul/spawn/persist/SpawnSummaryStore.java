@@ -0,0 +1,181 @@
+package com.spawningoverhaul.spawn.persist;
+
+import com.spawningoverhaul.SpawningOverhaulCommon;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.platform.Services;
+import com.spawningoverhaul.spawn.StructureCache;
+import com.spawningoverhaul.spawn.precompute.PrecomputeGrid;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import java.util.Set;
+
+/**
+ * Saves the spawn environment computed for a chunk with the chunk itself, as a {@link ChunkSpawnSummary}
+ * attached through the loader's data attachment API ({@link Services#setSpawnSummary}), so it is
+ * restored when the chunk loads instead of recomputed after every restart.
+ *
+ * Stored parts are the environment published by the {@link PrecomputeGrid} (only computed while
+ * precompute is enabled) and the {@link StructureCache} classification. Each summary carries a stamp
+ * of the mod version and the config values its parts depend on; summaries with another stamp are
+ * dropped when their chunk loads.
+ *
+ * Block changes drop the environment part of the loaded chunks they affect, like they clear the grid.
+ * Forest density also depends on neighbouring chunks, so logs changed next to a chunk while it
+ * was unloaded are only reflected once its summary is recomputed.
+ *
+ * Not thread-safe: all access must happen on the level's ticking thread.
+ */
+public class SpawnSummaryStore {
+
+    private static CompiledConfig stampedConfig;
+    private static int stamp;
+
+    /**
+     * Check whether summaries are read and written.
+     */
+    public static boolean isActive() {
+        return CompiledConfig.get().persistSpawnEnvironment && SpawningOverhaulCommon.getServices() != null;
+    }
+
+    /**
+     * Restore the stored parts of a freshly loaded chunk, or drop a summary with another stamp.
+     */
+    public static void onChunkLoad(ServerLevel level, LevelChunk chunk) {
+        if (!isActive()) {
+            return;
+        }
+        Services services = SpawningOverhaulCommon.getServices();
+        ChunkSpawnSummary summary = services.getSpawnSummary(chunk);
+        if (summary == null) {
+            return;
+        }
+        if (summary.stamp() != stamp()) {
+            services.setSpawnSummary(chunk, null);
+            chunk.setUnsaved(true);
+            return;
+        }
+
+        if (summary.structure() != ChunkSpawnSummary.STRUCTURE_UNKNOWN) {
+            StructureCache.restore(level, chunk.getPos(), summary.structure() == ChunkSpawnSummary.STRUCTURE_DANGEROUS);
+        }
+        if (summary.hasEnvironment() && PrecomputeGrid.isActive(level)) {
+            PrecomputeGrid.forLevel(level).restore(chunk.getPos().x, chunk.getPos().z, summary.skyBottom(),
+                    summary.forestMinY(), summary.forestHeight(), summary.forest());
+        }
+    }
+
+    /**
+     * Store a precomputed environment with its chunk.
+     */
+    public static void storeEnvironment(LevelChunk chunk, short[] skyBottom, int forestMinY, int forestHeight, float[] forest) {
+        if (isActive()) {
+            put(chunk, current(chunk).withEnvironment(skyBottom, forestMinY, forestHeight, forest));
+        }
+    }
+
+    /**
+     * Store a structure classification with its chunk.
+     */
+    public static void storeStructure(LevelChunk chunk, boolean dangerous) {
+        if (isActive()) {
+            put(chunk, current(chunk).withStructure(dangerous
+                    ? ChunkSpawnSummary.STRUCTURE_DANGEROUS : ChunkSpawnSummary.STRUCTURE_SAFE));
+        }
+    }
+
+    /**
+     * Structure classification stored with a loaded chunk.
+     *
+     * @return {@link ChunkSpawnSummary#STRUCTURE_SAFE} or {@link ChunkSpawnSummary#STRUCTURE_DANGEROUS},
+     *         or {@link ChunkSpawnSummary#STRUCTURE_UNKNOWN} if none is stored with the current stamp
+     */
+    public static byte storedStructure(LevelChunk chunk) {
+        return isActive() ? current(chunk).structure() : ChunkSpawnSummary.STRUCTURE_UNKNOWN;
+    }
+
+    /**
+     * Drop stored environments affected by a block change.
+     *
+     * @param level The level
+     * @param pos The changed position
+     * @param logChanged Whether the block changed between log and non-log
+     * @param lightChanged Whether the block changed how it passes sky light
+     */
+    public static void onBlockChanged(ServerLevel level, BlockPos pos, boolean logChanged, boolean lightChanged) {
+        if (!isActive()) {
+            return;
+        }
+        if (logChanged) {
+            // Same reach as the precompute grid invalidation
+            int reach = CompiledConfig.get().denseForestScanRadius + 2;
+            for (int chunkX = (pos.getX() - reach) >> 4; chunkX <= (pos.getX() + reach) >> 4; chunkX++) {
+                for (int chunkZ = (pos.getZ() - reach) >> 4; chunkZ <= (pos.getZ() + reach) >> 4; chunkZ++) {
+                    clearEnvironment(level.getChunkSource().getChunkNow(chunkX, chunkZ));
+                }
+            }
+        } else if (lightChanged) {
+            clearEnvironment(level.getChunkSource().getChunkNow(pos.getX() >> 4, pos.getZ() >> 4));
+        }
+    }
+
+    private static void clearEnvironment(LevelChunk chunk) {
+        if (chunk == null) {
+            return;
+        }
+        ChunkSpawnSummary summary = SpawningOverhaulCommon.getServices().getSpawnSummary(chunk);
+        if (summary != null && summary.hasEnvironment()) {
+            put(chunk, summary.withoutEnvironment());
+        }
+    }
+
+    /**
+     * The chunk's summary, or an empty one if it has none or one with another stamp.
+     */
+    private static ChunkSpawnSummary current(LevelChunk chunk) {
+        ChunkSpawnSummary summary = SpawningOverhaulCommon.getServices().getSpawnSummary(chunk);
+        int currentStamp = stamp();
+        return summary != null && summary.stamp() == currentStamp ? summary : ChunkSpawnSummary.empty(currentStamp);
+    }
+
+    // Only a changed summary is written, so storing what the chunk already holds never queues a chunk save
+    private static void put(LevelChunk chunk, ChunkSpawnSummary summary) {
+        if (summary.equals(SpawningOverhaulCommon.getServices().getSpawnSummary(chunk))) {
+            return;
+        }
+        SpawningOverhaulCommon.getServices().setSpawnSummary(chunk, summary);
+        chunk.setUnsaved(true);
+    }
+
+    /**
+     * Stamp for the current mod version and config.
+     * Covers every input of the stored parts: the scan radius and log threshold (forest density)
+     * and the structure lists (classification). Sky visibility depends on blocks only.
+     */
+    static int stamp() {
+        CompiledConfig config = CompiledConfig.get();
+        if (config != stampedConfig) {
+            int hash = ChunkSpawnSummary.FORMAT_VERSION;
+            hash = 31 * hash + SpawningOverhaulCommon.getServices().getModVersion().hashCode();
+            hash = 31 * hash + config.denseForestScanRadius;
+            hash = 31 * hash + config.denseForestLogThreshold;
+            hash = 31 * hash + keysHash(config.getAdditionalDangerousStructures());
+            hash = 31 * hash + keysHash(config.getAdditionalSafeStructures());
+            stamp = hash;
+            stampedConfig = config;
+        }
+        return stamp;
+    }
+
+    // Independent of set order and stable across restarts (ResourceKey hashes by identity)
+    private static int keysHash(Set<ResourceKey<Structure>> keys) {
+        int hash = 0;
+        for (ResourceKey<Structure> key : keys) {
+            hash += key.location().hashCode();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,56 @@
+package com.spawningoverhaul.spawn.precompute;
+
+/**
+ * Precomputed spawn environment of one chunk. Immutable once published.
+ *
+ * Sky visibility is stored as the lowest Y of each column from which the sky is visible.
+ * Forest density is stored per 4x4 column cell (evaluated at the cell's center column,
+ * like {@link com.spawningoverhaul.spawn.EnvironmentCache}) for every Y in the band that
+ * can reach a log; outside that band the density is 0.
+ */
+final class ChunkEnvironment extends GridEntry {
+
+    // Per column (z << 4 | x): lowest Y seeing the sky
+    private final short[] skyBottom;
+    private final int forestMinY;
+    private final int forestHeight;
+    // Per cell, then per Y from forestMinY; null when no logs are in reach
+    private final float[] forest;
+
+    ChunkEnvironment(long key, short[] skyBottom, int forestMinY, int forestHeight, float[] forest) {
+        super(key);
+        this.skyBottom = skyBottom;
+        this.forestMinY = forestMinY;
+        this.forestHeight = forestHeight;
+        this.forest = forest;
+    }
+
+    short[] skyBottom() {
+        return skyBottom;
+    }
+
+    int forestMinY() {
+        return forestMinY;
+    }
+
+    int forestHeight() {
+        return forestHeight;
+    }
+
+    float[] forest() {
+        return forest;
+    }
+
+    boolean canSeeSky(int x, int y, int z) {
+        return y >= skyBottom[((z & 15) << 4) | (x & 15)];
+    }
+
+    float forestDensity(int x, int y, int z) {
+        int dy = y - forestMinY;
+        if (forest == null || dy < 0 || dy >= forestHeight) {
+            return 0.0f;
+        }
+        int cell = (((z & 15) >> 2) << 2) | ((x & 15) >> 2);
+        return forest[cell * forestHeight + dy];
+    }
+}
@@ -0,0 +1,162 @@
+package com.spawningoverhaul.spawn.precompute;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.LocationDetector;
+import com.spawningoverhaul.spawn.index.ChunkLogColumns;
+import com.spawningoverhaul.spawn.index.LogIndex;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Copy of everything needed to compute a chunk's {@link ChunkEnvironment}, taken on the main
+ * thread so the computation can run on a worker without touching the live world.
+ *
+ * Holds copies of the chunk's non-empty block sections (sky visibility) and of the log summaries
+ * of every chunk the forest scan cylinders of its cells can reach. Summaries missing from the
+ * {@link LogIndex} are built while taking the snapshot.
+ */
+final class ChunkSnapshot {
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minBuildHeight;
+    private final int height;
+    private final LevelChunkSection[] sections;
+    private final Long2ObjectOpenHashMap<ChunkLogColumns> logs;
+    private final int radius;
+    private final int logThreshold;
+
+    private ChunkSnapshot(int chunkX, int chunkZ, int minBuildHeight, int height, LevelChunkSection[] sections,
+                          Long2ObjectOpenHashMap<ChunkLogColumns> logs, int radius, int logThreshold) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minBuildHeight = minBuildHeight;
+        this.height = height;
+        this.sections = sections;
+        this.logs = logs;
+        this.radius = radius;
+        this.logThreshold = logThreshold;
+    }
+
+    /**
+     * Copy a loaded chunk and the log summaries around it. Main thread only.
+     */
+    static ChunkSnapshot take(ServerLevel level, LevelChunk chunk, CompiledConfig config) {
+        ChunkPos pos = chunk.getPos();
+        LevelChunkSection[] live = chunk.getSections();
+        LevelChunkSection[] sections = new LevelChunkSection[live.length];
+        for (int i = 0; i < live.length; i++) {
+            LevelChunkSection section = live[i];
+            if (section != null && !section.hasOnlyAir()) {
+                sections[i] = new LevelChunkSection(section.getStates().copy(), section.getBiomes());
+            }
+        }
+
+        // Chunks reached by the scan cylinders around the cell centers (offset 2 to 14 in the chunk)
+        int radius = config.denseForestScanRadius;
+        int minX = ((pos.x << 4) + 2 - radius) >> 4;
+        int maxX = ((pos.x << 4) + 14 + radius) >> 4;
+        int minZ = ((pos.z << 4) + 2 - radius) >> 4;
+        int maxZ = ((pos.z << 4) + 14 + radius) >> 4;
+        LogIndex index = LogIndex.forLevel(level);
+        Long2ObjectOpenHashMap<ChunkLogColumns> logs = new Long2ObjectOpenHashMap<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                ChunkLogColumns columns = index.getOrIndex(level, x, z);
+                if (columns != null) {
+                    logs.put(ChunkPos.asLong(x, z), columns.copy());
+                }
+            }
+        }
+
+        return new ChunkSnapshot(pos.x, pos.z, level.getMinBuildHeight(), level.getHeight(), sections, logs,
+                radius, config.denseForestLogThreshold);
+    }
+
+    /**
+     * Compute the environment. Safe to call from any thread.
+     */
+    ChunkEnvironment compute() {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        short[] skyBottom = computeSkyBottom();
+
+        // Only Y levels whose scan band can reach a logged section get a density
+        int lowestLogY = Integer.MAX_VALUE;
+        int highestLogY = Integer.MIN_VALUE;
+        for (ChunkLogColumns columns : logs.values()) {
+            int lowest = columns.lowestLogSection();
+            if (lowest != Integer.MAX_VALUE) {
+                lowestLogY = Math.min(lowestLogY, lowest << 4);
+                highestLogY = Math.max(highestLogY, (columns.highestLogSection() << 4) + 15);
+            }
+        }
+        if (lowestLogY == Integer.MAX_VALUE) {
+            return new ChunkEnvironment(key, skyBottom, minBuildHeight, 0, null);
+        }
+
+        int minY = Math.max(minBuildHeight, lowestLogY - LocationDetector.FOREST_SCAN_VERTICAL_RANGE);
+        int maxY = Math.min(minBuildHeight + height - 1, highestLogY + LocationDetector.FOREST_SCAN_VERTICAL_RANGE);
+        int forestHeight = maxY - minY + 1;
+        return new ChunkEnvironment(key, skyBottom, minY, forestHeight, computeForest(minY, forestHeight));
+    }
+
+    private short[] computeSkyBottom() {
+        // Full sky light only travels straight down, through blocks that let it pass unchanged
+        short[] skyBottom = new short[256];
+        for (int column = 0; column < 256; column++) {
+            int x = column & 15;
+            int z = column >> 4;
+            int bottom = minBuildHeight;
+
+            search:
+            for (int i = sections.length - 1; i >= 0; i--) {
+                LevelChunkSection section = sections[i];
+                if (section == null || !section.maybeHas(ChunkSnapshot::blocksSky)) {
+                    continue;
+                }
+                for (int y = 15; y >= 0; y--) {
+                    if (blocksSky(section.getBlockState(x, y, z))) {
+                        bottom = minBuildHeight + (i << 4) + y + 1;
+                        break search;
+                    }
+                }
+            }
+            skyBottom[column] = (short) bottom;
+        }
+        return skyBottom;
+    }
+
+    private static boolean blocksSky(BlockState state) {
+        return !state.propagatesSkylightDown(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+    }
+
+    private float[] computeForest(int minY, int forestHeight) {
+        LogIndex local = new LogIndex();
+        for (var entry : logs.long2ObjectEntrySet()) {
+            long key = entry.getLongKey();
+            local.putChunk(ChunkPos.getX(key), ChunkPos.getZ(key), entry.getValue());
+        }
+        LevelHeightAccessor heightAccessor = LevelHeightAccessor.create(minBuildHeight, height);
+
+        float[] forest = new float[16 * forestHeight];
+        BlockPos.MutableBlockPos center = new BlockPos.MutableBlockPos();
+        for (int cell = 0; cell < 16; cell++) {
+            int x = (chunkX << 4) + ((cell & 3) << 2) + 2;
+            int z = (chunkZ << 4) + ((cell >> 2) << 2) + 2;
+            for (int dy = 0; dy < forestHeight; dy++) {
+                center.set(x, minY + dy, z);
+                int count = local.countLogs(heightAccessor, center, radius,
+                        LocationDetector.FOREST_SCAN_VERTICAL_RANGE, logThreshold);
+                forest[cell * forestHeight + dy] = (float) Math.min(1.0, (double) count / logThreshold);
+            }
+        }
+        return forest;
+    }
+}
@@ -0,0 +1,15 @@
+package com.spawningoverhaul.spawn.precompute;
+
+/**
+ * Slot content of a {@link PrecomputeGrid}.
+ * A plain entry marks a chunk whose snapshot is queued or being computed;
+ * finished results are {@link ChunkEnvironment} instances.
+ */
+class GridEntry {
+    // ChunkPos as long
+    final long key;
+
+    GridEntry(long key) {
+        this.key = key;
+    }
+}
@@ -0,0 +1,274 @@
+package com.spawningoverhaul.spawn.precompute;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.LevelSpawnState;
+import com.spawningoverhaul.spawn.persist.SpawnSummaryStore;
+import com.spawningoverhaul.spawn.stats.DimensionStats;
+import com.spawningoverhaul.spawn.stats.SpawnCounter;
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Spawn environment (sky visibility and forest density) precomputed off the main thread
+ * for the chunks around players.
+ *
+ * Every few ticks the main thread snapshots loaded chunks near non-spectator players, nearest
+ * first, and hands the snapshots to {@link PrecomputeWorkers}. Results land in a fixed-size,
+ * direct-mapped table shared by all players in the dimension, so players close to each other
+ * never compute a chunk twice. A slot is only taken over from another chunk once that chunk has
+ * left every player's radius; until then the colliding chunk keeps using live detection, so two
+ * wanted chunks sharing a slot never evict each other on every pass.
+ *
+ * Forest density is always evaluated at the center column of each 4x4 cell from a full count of
+ * the snapshot's logs, whatever {@code forestScanMode} is set to.
+ *
+ * Reads are lock-free and allocation-free: one volatile array read and a key check. A slot first
+ * holds a pending marker, which the worker replaces with its result by compare-and-set. Block
+ * changes and chunk unloads clear the slot, so a result computed from a stale snapshot fails its
+ * compare-and-set and is dropped; the chunk is picked up again on a later pass.
+ * Callers fall back to the synchronous path whenever a chunk is not ready.
+ *
+ * Published results are handed back to the main thread and saved with their chunks by the
+ * {@link SpawnSummaryStore}, which also restores them into the table when a chunk loads again.
+ *
+ * Structure membership is not precomputed: it needs structure starts from neighbouring chunks,
+ * which cannot be read off the main thread, and it is already cached per chunk by
+ * {@link com.spawningoverhaul.spawn.StructureCache}.
+ *
+ * Scheduling and invalidation happen on the level's ticking thread; reads are safe from any thread.
+ */
+public class PrecomputeGrid {
+
+    public static final byte SKY_UNKNOWN = -1;
+    public static final byte SKY_HIDDEN = 0;
+    public static final byte SKY_VISIBLE = 1;
+
+    // 8192 slots: a radius-8 square around one player covers 289 chunks
+    private static final int TABLE_BITS = 13;
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+    private static final int SCHEDULE_INTERVAL_TICKS = 10;
+    // Bounds the main-thread cost of copying chunks per pass
+    private static final int MAX_SNAPSHOTS_PER_PASS = 16;
+
+    private final AtomicReferenceArray<GridEntry> slots = new AtomicReferenceArray<>(1 << TABLE_BITS);
+    // Results published by workers, waiting to be saved with their chunks on the main thread
+    private final ConcurrentLinkedQueue<ChunkEnvironment> published = new ConcurrentLinkedQueue<>();
+    private final DimensionStats stats;
+
+    public PrecomputeGrid(DimensionStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Check whether spawn contexts in this level should read from the grid.
+     */
+    public static boolean isActive(Level level) {
+        return level instanceof ServerLevel && CompiledConfig.get().enableEnvironmentPrecompute;
+    }
+
+    /**
+     * Get the grid for a level, creating it on first use.
+     */
+    public static PrecomputeGrid forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).precomputeGrid();
+    }
+
+    /**
+     * Stop the workers (server stop or config change). Queued computations are discarded.
+     */
+    public static void stopWorkers() {
+        PrecomputeWorkers.shutdown();
+    }
+
+    /**
+     * Precomputed forest density for a position.
+     *
+     * @param pos The spawn position
+     * @return Forest density from 0.0 to 1.0, or NaN if the chunk is not ready
+     */
+    public float getForestDensity(BlockPos pos) {
+        ChunkEnvironment environment = ready(pos.getX() >> 4, pos.getZ() >> 4);
+        return environment == null ? Float.NaN : environment.forestDensity(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Precomputed sky visibility at a position offset vertically.
+     *
+     * @param pos The base position
+     * @param dy Vertical offset from the base position
+     * @return {@link #SKY_VISIBLE}, {@link #SKY_HIDDEN} or {@link #SKY_UNKNOWN} if the chunk is not ready
+     */
+    public byte canSeeSky(BlockPos pos, int dy) {
+        ChunkEnvironment environment = ready(pos.getX() >> 4, pos.getZ() >> 4);
+        if (environment == null) {
+            return SKY_UNKNOWN;
+        }
+        return environment.canSeeSky(pos.getX(), pos.getY() + dy, pos.getZ()) ? SKY_VISIBLE : SKY_HIDDEN;
+    }
+
+    private ChunkEnvironment ready(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        GridEntry entry = slots.get(slot(key));
+        if (entry instanceof ChunkEnvironment environment && environment.key == key) {
+            stats.increment(SpawnCounter.PRECOMPUTE_HIT);
+            return environment;
+        }
+        stats.increment(SpawnCounter.PRECOMPUTE_MISS);
+        return null;
+    }
+
+    /**
+     * Put an environment restored from a chunk's saved summary into the table.
+     * Slots holding another chunk or a pending computation are left alone.
+     */
+    public void restore(int chunkX, int chunkZ, short[] skyBottom, int forestMinY, int forestHeight, float[] forest) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        slots.compareAndSet(slot(key), null, new ChunkEnvironment(key, skyBottom, forestMinY, forestHeight, forest));
+    }
+
+    /**
+     * Save results published since the last tick and queue snapshots of chunks around players
+     * that are not computed yet.
+     */
+    public void tick(ServerLevel level) {
+        for (ChunkEnvironment environment; (environment = published.poll()) != null; ) {
+            // Skip results invalidated or evicted since they were published
+            if (slots.get(slot(environment.key)) == environment) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(environment.key), ChunkPos.getZ(environment.key));
+                if (chunk != null) {
+                    SpawnSummaryStore.storeEnvironment(chunk, environment.skyBottom(), environment.forestMinY(),
+                            environment.forestHeight(), environment.forest());
+                }
+            }
+        }
+
+        if (level.getGameTime() % SCHEDULE_INTERVAL_TICKS != 0) {
+            return;
+        }
+
+        CompiledConfig config = CompiledConfig.get();
+        int radius = config.precomputeRadiusChunks;
+        int budget = MAX_SNAPSHOTS_PER_PASS;
+        for (ServerPlayer player : level.players()) {
+            if (player.isSpectator()) {
+                continue;
+            }
+            ChunkPos center = player.chunkPosition();
+
+            // Rings of increasing distance, so the chunks mobs are most likely to spawn in come first
+            for (int ring = 0; ring <= radius; ring++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    int step = (dx == -ring || dx == ring) ? 1 : ring * 2;
+                    for (int dz = -ring; dz <= ring; dz += step) {
+                        if (schedule(level, config, center.x + dx, center.z + dz) && --budget == 0) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean schedule(ServerLevel level, CompiledConfig config, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        int slot = slot(key);
+        GridEntry current = slots.get(slot);
+        if (current != null && current.key == key) {
+            return false; // Ready or in flight
+        }
+
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            return false;
+        }
+
+        // Direct-mapped eviction, but only of chunks no player needs any more
+        if (current != null && isWanted(level, config.precomputeRadiusChunks, current.key)) {
+            return false;
+        }
+
+        GridEntry pending = new GridEntry(key);
+        slots.set(slot, pending);
+        ChunkSnapshot snapshot = ChunkSnapshot.take(level, chunk, config);
+
+        boolean persist = SpawnSummaryStore.isActive();
+        boolean queued = PrecomputeWorkers.submit(config.precomputeThreads, () -> {
+            try {
+                ChunkEnvironment environment = snapshot.compute();
+                if (slots.compareAndSet(slot, pending, environment) && persist) {
+                    published.add(environment);
+                }
+            } catch (RuntimeException e) {
+                slots.compareAndSet(slot, pending, null);
+                throw e;
+            }
+        });
+        if (!queued) {
+            slots.compareAndSet(slot, pending, null);
+        }
+        return queued;
+    }
+
+    /**
+     * Check whether a chunk is within the precompute radius of any non-spectator player.
+     */
+    private static boolean isWanted(ServerLevel level, int radius, long key) {
+        int chunkX = ChunkPos.getX(key);
+        int chunkZ = ChunkPos.getZ(key);
+        for (ServerPlayer player : level.players()) {
+            if (player.isSpectator()) {
+                continue;
+            }
+            ChunkPos center = player.chunkPosition();
+            if (Math.abs(center.x - chunkX) <= radius && Math.abs(center.z - chunkZ) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidate results affected by a block change.
+     *
+     * @param pos The changed position
+     * @param logChanged Whether the block changed between log and non-log
+     * @param lightChanged Whether the block changed how it passes sky light
+     */
+    public void onBlockChanged(BlockPos pos, boolean logChanged, boolean lightChanged) {
+        if (logChanged) {
+            // Cell centers whose scan cylinder contains the changed block (centers sit up to 2 blocks off)
+            int reach = CompiledConfig.get().denseForestScanRadius + 2;
+            for (int chunkX = (pos.getX() - reach) >> 4; chunkX <= (pos.getX() + reach) >> 4; chunkX++) {
+                for (int chunkZ = (pos.getZ() - reach) >> 4; chunkZ <= (pos.getZ() + reach) >> 4; chunkZ++) {
+                    removeChunk(chunkX, chunkZ);
+                }
+            }
+        } else if (lightChanged) {
+            removeChunk(pos.getX() >> 4, pos.getZ() >> 4);
+        }
+    }
+
+    /**
+     * Drop a chunk's result or cancel its pending computation.
+     */
+    public void removeChunk(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        int slot = slot(key);
+        GridEntry current = slots.get(slot);
+        if (current != null && current.key == key) {
+            slots.compareAndSet(slot, current, null);
+        }
+    }
+
+    private static int slot(long key) {
+        return (int) HashCommon.mix(key) & TABLE_MASK;
+    }
+}
@@ -0,0 +1,72 @@
+package com.spawningoverhaul.spawn.precompute;
+
+import com.spawningoverhaul.SpawningOverhaulCommon;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background threads computing chunk environments from snapshots.
+ * Started on first use with the configured thread count; shut down on server stop
+ * and on config changes (the next submission starts a pool with the new size).
+ */
+final class PrecomputeWorkers {
+
+    // Snapshots waiting for a worker; beyond this, new submissions are refused and retried later
+    private static final int QUEUE_CAPACITY = 512;
+
+    private static ThreadPoolExecutor executor;
+    private static int executorThreads;
+
+    private PrecomputeWorkers() {
+    }
+
+    /**
+     * Queue a task.
+     *
+     * @param threads Configured pool size
+     * @param task The task to run on a worker
+     * @return false if the queue is full
+     */
+    static synchronized boolean submit(int threads, Runnable task) {
+        if (executor == null || executorThreads != threads) {
+            shutdown();
+            executor = create(threads);
+            executorThreads = threads;
+        }
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stop the workers. Queued snapshots are discarded; running ones finish in the background.
+     */
+    static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static ThreadPoolExecutor create(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "SpawningOverhaul-Precompute-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    thread.setUncaughtExceptionHandler((t, e) ->
+                            SpawningOverhaulCommon.getLogger().error("Environment precompute worker failed", e));
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
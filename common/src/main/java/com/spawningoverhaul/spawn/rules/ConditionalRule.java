@@ -0,0 +1,17 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+
+import java.util.function.Predicate;
+
+/**
+ * Rule applying a multiplier when a condition holds, see {@link MobSpawnRule#when}.
+ * Its result is never above max(1.0, multiplier), which {@link MobEvaluators} uses to bound mob factors.
+ */
+record ConditionalRule(Predicate<SpawnContext> condition, double multiplier) implements MobSpawnRule {
+
+    @Override
+    public double getSpawnMultiplier(SpawnContext context) {
+        return condition.test(context) ? multiplier : 1.0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.SpawnContext;
+
+import java.util.function.Function;
+
+/**
+ * Rule built from the current config, see {@link MobSpawnRule#configured}.
+ * Evaluated directly it rebuilds the rule each time; {@link MobEvaluators} builds it once per config.
+ */
+record ConfiguredRule(Function<CompiledConfig, MobSpawnRule> factory) implements MobSpawnRule {
+
+    @Override
+    public double getSpawnMultiplier(SpawnContext context) {
+        return factory.apply(CompiledConfig.get()).getSpawnMultiplier(context);
+    }
+}
@@ -0,0 +1,14 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+
+/**
+ * Rule with a fixed multiplier, see {@link MobSpawnRule#constant}.
+ */
+record ConstantRule(double multiplier) implements MobSpawnRule {
+
+    @Override
+    public double getSpawnMultiplier(SpawnContext context) {
+        return multiplier;
+    }
+}
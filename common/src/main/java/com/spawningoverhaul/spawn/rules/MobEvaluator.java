@@ -0,0 +1,77 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+
+/**
+ * Fused mob factor for one entity type: code rules and the configured multiplier,
+ * compiled by {@link MobEvaluators}.
+ *
+ * All constant stages are folded into one factor and neutral stages are gone, so a mob whose
+ * rules are all constant (or that has none) is evaluated without touching the context.
+ * Probes used by several stages are evaluated once, since {@link SpawnContext} memoizes them.
+ */
+public final class MobEvaluator {
+
+    public static final MobEvaluator NEUTRAL = new MobEvaluator(1.0, new MobSpawnRule[0]);
+
+    private final double constantFactor;
+    private final MobSpawnRule[] stages;
+    private final double upperBound;
+
+    MobEvaluator(double constantFactor, MobSpawnRule[] stages) {
+        this.constantFactor = constantFactor;
+        // A non-positive constant decides the result, the remaining stages cannot change it
+        this.stages = constantFactor > 0.0 ? stages : new MobSpawnRule[0];
+        this.upperBound = upperBound(constantFactor, this.stages);
+    }
+
+    /**
+     * Whether the result depends on the spawn context.
+     */
+    public boolean isConstant() {
+        return stages.length == 0;
+    }
+
+    /**
+     * Highest result {@link #evaluate} can return for any context.
+     *
+     * @return The bound, or Double.POSITIVE_INFINITY if a stage has no known bound
+     */
+    public double upperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Product of all stages; stops as soon as the product is 0.0 or less.
+     *
+     * @param context The spawn context
+     * @return The mob factor of the spawn multiplier
+     */
+    public double evaluate(SpawnContext context) {
+        double multiplier = constantFactor;
+        for (MobSpawnRule stage : stages) {
+            multiplier *= stage.getSpawnMultiplier(context);
+            if (!(multiplier > 0.0)) {
+                return multiplier;
+            }
+        }
+        return multiplier;
+    }
+
+    // The product stops at the first non-positive value, so only stage results above 1.0 can raise it
+    private static double upperBound(double constantFactor, MobSpawnRule[] stages) {
+        if (!(constantFactor > 0.0)) {
+            return 0.0;
+        }
+        double bound = constantFactor;
+        for (MobSpawnRule stage : stages) {
+            if (!(stage instanceof ConditionalRule conditional)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (conditional.multiplier() > 1.0) {
+                bound *= conditional.multiplier();
+            }
+        }
+        return bound;
+    }
+}
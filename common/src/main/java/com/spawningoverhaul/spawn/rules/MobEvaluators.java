@@ -0,0 +1,148 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-entity-type {@link MobEvaluator}s compiled from the {@link MobRuleRegistry} and the
+ * configured mob multipliers (mobSpecificMultipliers).
+ *
+ * Compilation flattens rule chains, resolves {@link MobSpawnRule#configured} rules against the
+ * config, folds constant stages (including the configured multiplier) into one factor and drops
+ * stages equal to 1.0. Mobs that end up with no dynamic stage cost one array read per attempt,
+ * however many rules were registered.
+ *
+ * The table is rebuilt when the compiled config or the registry changes, and lookups are an
+ * array index by entity type registry id on an immutable table, safe from any thread.
+ */
+public final class MobEvaluators {
+
+    private static volatile Table table;
+
+    private MobEvaluators() {
+    }
+
+    /**
+     * Get the compiled evaluator for a mob type.
+     *
+     * @param entityType The mob type (null for none)
+     * @return The evaluator, {@link MobEvaluator#NEUTRAL} when nothing applies
+     */
+    public static MobEvaluator forType(EntityType<?> entityType) {
+        Table current = current();
+        if (entityType == null) {
+            return MobEvaluator.NEUTRAL;
+        }
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+        MobEvaluator evaluator = id >= 0 && id < current.evaluators.length ? current.evaluators[id] : null;
+        return evaluator != null ? evaluator : MobEvaluator.NEUTRAL;
+    }
+
+    /**
+     * Highest mob factor any mob type can get, with the rules and config currently in effect.
+     *
+     * @return The bound (at least 1.0, the factor of mobs without rules), or Double.POSITIVE_INFINITY
+     *         if a registered rule has no known bound
+     */
+    public static double upperBound() {
+        return current().upperBound;
+    }
+
+    private static Table current() {
+        Table current = table;
+        CompiledConfig config = CompiledConfig.get();
+        int version = MobRuleRegistry.version();
+        if (current == null || current.config != config || current.rulesVersion != version) {
+            current = rebuild(config, version);
+        }
+        return current;
+    }
+
+    private static synchronized Table rebuild(CompiledConfig config, int version) {
+        Table current = table;
+        if (current != null && current.config == config && current.rulesVersion == version) {
+            return current;
+        }
+
+        Map<EntityType<?>, MobSpawnRule> rules = MobRuleRegistry.rules();
+        Set<EntityType<?>> configured = config.getConfiguredMobs();
+
+        int size = 0;
+        for (EntityType<?> entityType : rules.keySet()) {
+            size = Math.max(size, BuiltInRegistries.ENTITY_TYPE.getId(entityType) + 1);
+        }
+        for (EntityType<?> entityType : configured) {
+            size = Math.max(size, BuiltInRegistries.ENTITY_TYPE.getId(entityType) + 1);
+        }
+
+        MobEvaluator[] evaluators = new MobEvaluator[size];
+        for (Map.Entry<EntityType<?>, MobSpawnRule> entry : rules.entrySet()) {
+            int id = BuiltInRegistries.ENTITY_TYPE.getId(entry.getKey());
+            if (id >= 0) {
+                evaluators[id] = compile(entry.getValue(), config.getMobMultiplier(entry.getKey()), config);
+            }
+        }
+        for (EntityType<?> entityType : configured) {
+            int id = BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+            if (id >= 0 && evaluators[id] == null) {
+                evaluators[id] = compile(null, config.getMobMultiplier(entityType), config);
+            }
+        }
+
+        double upperBound = 1.0;
+        for (MobEvaluator evaluator : evaluators) {
+            if (evaluator != null) {
+                upperBound = Math.max(upperBound, evaluator.upperBound());
+            }
+        }
+
+        Table rebuilt = new Table(config, version, evaluators, upperBound);
+        table = rebuilt;
+        return rebuilt;
+    }
+
+    private static MobEvaluator compile(MobSpawnRule rule, double configMultiplier, CompiledConfig config) {
+        List<MobSpawnRule> stages = new ArrayList<>();
+        if (rule != null) {
+            resolve(rule, config, stages);
+        }
+
+        double constantFactor = 1.0;
+        List<MobSpawnRule> dynamic = new ArrayList<>();
+        for (MobSpawnRule stage : stages) {
+            if (stage instanceof ConstantRule constant) {
+                constantFactor *= constant.multiplier();
+            } else {
+                dynamic.add(stage);
+            }
+        }
+        constantFactor *= configMultiplier;
+
+        if (constantFactor == 1.0 && dynamic.isEmpty()) {
+            return MobEvaluator.NEUTRAL;
+        }
+        return new MobEvaluator(constantFactor, dynamic.toArray(new MobSpawnRule[0]));
+    }
+
+    // Flatten chains and build configured rules, recursively
+    private static void resolve(MobSpawnRule rule, CompiledConfig config, List<MobSpawnRule> into) {
+        if (rule instanceof RuleChain chain) {
+            for (MobSpawnRule stage : chain.stages) {
+                resolve(stage, config, into);
+            }
+        } else if (rule instanceof ConfiguredRule configuredRule) {
+            resolve(configuredRule.factory().apply(config), config, into);
+        } else {
+            into.add(rule);
+        }
+    }
+
+    private record Table(CompiledConfig config, int rulesVersion, MobEvaluator[] evaluators, double upperBound) {
+    }
+}
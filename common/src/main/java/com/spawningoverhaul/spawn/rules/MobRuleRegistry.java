@@ -1,28 +1,105 @@
 package com.spawningoverhaul.spawn.rules;
 
-import com.spawningoverhaul.config.SpawningConfig;
 import com.spawningoverhaul.spawn.SpawnContext;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.entity.EntityType;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Registry for mob-specific spawn rules.
  * Allows custom logic for individual mob types.
+ *
+ * Rules are registered during mod initialization. {@link #register} replaces any rule the mob type
+ * already has; {@link #registerChained} chains the new rule after it ({@link MobSpawnRule#andThen}),
+ * so rules from several mods combine. The registry is frozen when the server starts; registering
+ * afterwards throws.
+ *
+ * Lookups read an immutable array indexed by the entity type's registry id, published through a
+ * volatile field and rebuilt copy-on-write on every change, so they are safe from any thread and
+ * never lock. The array is re-indexed on each freeze, after registry ids are final for the session.
  */
 public class MobRuleRegistry {
 
-    private static final Map<EntityType<?>, MobSpawnRule> RULES = new HashMap<>();
+    private static final MobSpawnRule[] EMPTY = new MobSpawnRule[0];
+
+    // Registration order source of truth; guarded by the class lock
+    private static final Map<EntityType<?>, MobSpawnRule> RULES = new LinkedHashMap<>();
+    private static boolean frozen;
+
+    // Rule per entity type registry id (null when none)
+    private static volatile MobSpawnRule[] byId = EMPTY;
+    // Bumped on every change so compiled evaluators know when to rebuild
+    private static volatile int version;
 
     /**
      * Register a custom spawn rule for a specific mob type.
+     * Replaces any rule already registered for the mob type.
      *
      * @param entityType The mob entity type
      * @param rule The spawn rule
+     * @throws IllegalStateException if the registry is already frozen
      */
-    public static void register(EntityType<?> entityType, MobSpawnRule rule) {
+    public static synchronized void register(EntityType<?> entityType, MobSpawnRule rule) {
+        checkNotFrozen(entityType);
         RULES.put(entityType, rule);
+        byId = index();
+        version++;
+    }
+
+    /**
+     * Register a custom spawn rule for a specific mob type, keeping any rule already registered.
+     * The new rule is chained after the existing one, so both multipliers apply.
+     *
+     * @param entityType The mob entity type
+     * @param rule The spawn rule
+     * @throws IllegalStateException if the registry is already frozen
+     */
+    public static synchronized void registerChained(EntityType<?> entityType, MobSpawnRule rule) {
+        checkNotFrozen(entityType);
+        RULES.merge(entityType, rule, MobSpawnRule::andThen);
+        byId = index();
+        version++;
+    }
+
+    /**
+     * Freeze the registry and re-index it against the final registry ids.
+     * Called when a server starts; safe to call again for later servers.
+     */
+    public static synchronized void freeze() {
+        frozen = true;
+        byId = index();
+        version++;
+    }
+
+    /**
+     * Change counter, incremented on every registration and freeze.
+     */
+    public static int version() {
+        return version;
+    }
+
+    /**
+     * Copy of all registered rule chains, in registration order.
+     */
+    public static synchronized Map<EntityType<?>, MobSpawnRule> rules() {
+        return new LinkedHashMap<>(RULES);
+    }
+
+    /**
+     * Get the rule chain for a mob type.
+     *
+     * @param entityType The mob entity type (null for none)
+     * @return The rule, or null if none is registered
+     */
+    public static MobSpawnRule getRule(EntityType<?> entityType) {
+        if (entityType == null) {
+            return null;
+        }
+        MobSpawnRule[] rules = byId;
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+        return id >= 0 && id < rules.length ? rules[id] : null;
     }
 
     /**
@@ -32,42 +109,53 @@ public class MobRuleRegistry {
      * @return The spawn multiplier (1.0 if no rule registered)
      */
     public static double getMultiplier(SpawnContext context) {
-        MobSpawnRule rule = RULES.get(context.getEntityType());
+        MobSpawnRule rule = getRule(context.getEntityType());
         if (rule != null) {
             return rule.getSpawnMultiplier(context);
         }
         return 1.0;
     }
 
+    private static void checkNotFrozen(EntityType<?> entityType) {
+        if (frozen) {
+            throw new IllegalStateException("Mob spawn rules must be registered during mod initialization, "
+                    + "rule for " + BuiltInRegistries.ENTITY_TYPE.getKey(entityType) + " came after server start");
+        }
+    }
+
+    private static MobSpawnRule[] index() {
+        int size = 0;
+        for (EntityType<?> entityType : RULES.keySet()) {
+            size = Math.max(size, BuiltInRegistries.ENTITY_TYPE.getId(entityType) + 1);
+        }
+
+        MobSpawnRule[] rules = new MobSpawnRule[size];
+        for (Map.Entry<EntityType<?>, MobSpawnRule> entry : RULES.entrySet()) {
+            int id = BuiltInRegistries.ENTITY_TYPE.getId(entry.getKey());
+            if (id >= 0) {
+                rules[id] = entry.getValue();
+            }
+        }
+        return rules;
+    }
+
     /**
      * Register default mob-specific rules.
      * Called during mod initialization.
      */
     public static void registerDefaults() {
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
-
         // Spider Rule: ONLY spawn in caves if enabled
-        register(EntityType.SPIDER, context -> {
-            if (config.spiderOnlyInCave) {
-                return context.isInCave() ? 1.0 : 0.0;
-            }
-            return 1.0;
-        });
+        MobSpawnRule caveOnly = MobSpawnRule.configured(config -> config.spiderOnlyInCave
+                ? MobSpawnRule.when(context -> !context.isInCave(), 0.0)
+                : MobSpawnRule.constant(1.0));
+        register(EntityType.SPIDER, caveOnly);
 
         // Cave Spider Rule: Same as spider
-        register(EntityType.CAVE_SPIDER, context -> {
-            if (config.spiderOnlyInCave) {
-                return context.isInCave() ? 1.0 : 0.0;
-            }
-            return 1.0;
-        });
+        register(EntityType.CAVE_SPIDER, caveOnly);
 
         // Creeper Rule: Block near dangerous structures if enabled
-        register(EntityType.CREEPER, context -> {
-            if (config.disableCreeperNearStructure && context.isInDangerousStructure()) {
-                return 0.0;
-            }
-            return 1.0;
-        });
+        register(EntityType.CREEPER, MobSpawnRule.configured(config -> config.disableCreeperNearStructure
+                ? MobSpawnRule.when(SpawnContext::isInDangerousStructure, 0.0)
+                : MobSpawnRule.constant(1.0)));
     }
 }
@@ -1,7 +1,11 @@
 package com.spawningoverhaul.spawn.rules;
 
+import com.spawningoverhaul.config.CompiledConfig;
 import com.spawningoverhaul.spawn.SpawnContext;
 
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 /**
  * Functional interface for custom mob-specific spawn rules.
  * Returns a multiplier that affects the spawn rate for a specific mob type.
@@ -11,6 +15,11 @@ import com.spawningoverhaul.spawn.SpawnContext;
  * - < 1.0: Reduce spawn rate (probabilistic)
  * - 1.0: No modification (use default multipliers)
  * - > 1.0: Increase spawn rate
+ *
+ * Rules built from the factories below ({@link #constant}, {@link #when}, {@link #configured})
+ * and chained with {@link #andThen} stay visible to {@link MobEvaluators}, which can fold
+ * constants, drop neutral stages and bound their results. Plain lambdas are always evaluated and
+ * have no known bound, which keeps {@link com.spawningoverhaul.spawn.EarlySpawnGate} from rejecting any pack.
  */
 @FunctionalInterface
 public interface MobSpawnRule {
@@ -21,4 +30,42 @@ public interface MobSpawnRule {
      * @return The spawn rate multiplier for this mob (0.0 to prevent, 1.0 for neutral, >1.0 to boost)
      */
     double getSpawnMultiplier(SpawnContext context);
+
+    /**
+     * Chain another rule after this one. The multipliers are multiplied, and the next rule is
+     * not evaluated once this one returns 0.0 or less (its result would not matter).
+     *
+     * @param next The rule to apply after this one
+     * @return The combined rule
+     */
+    default MobSpawnRule andThen(MobSpawnRule next) {
+        return RuleChain.of(this, next);
+    }
+
+    /**
+     * A rule that always returns the same multiplier, without looking at the context.
+     */
+    static MobSpawnRule constant(double multiplier) {
+        return new ConstantRule(multiplier);
+    }
+
+    /**
+     * A rule applying a multiplier when a condition holds, and 1.0 otherwise.
+     *
+     * @param condition Condition on the spawn context
+     * @param multiplier Multiplier applied when the condition holds
+     */
+    static MobSpawnRule when(Predicate<SpawnContext> condition, double multiplier) {
+        return new ConditionalRule(condition, multiplier);
+    }
+
+    /**
+     * A rule that depends on config values. The factory runs once per compiled config,
+     * so a rule disabled by the config costs nothing per attempt.
+     *
+     * @param factory Builds the rule for a config snapshot
+     */
+    static MobSpawnRule configured(Function<CompiledConfig, MobSpawnRule> factory) {
+        return new ConfiguredRule(factory);
+    }
 }
@@ -0,0 +1,48 @@
+package com.spawningoverhaul.spawn.rules;
+
+import com.spawningoverhaul.spawn.SpawnContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rules multiplied in order, see {@link MobSpawnRule#andThen}.
+ * Nested chains are flattened so {@link MobEvaluators} sees every stage.
+ */
+final class RuleChain implements MobSpawnRule {
+
+    final MobSpawnRule[] stages;
+
+    private RuleChain(MobSpawnRule[] stages) {
+        this.stages = stages;
+    }
+
+    static RuleChain of(MobSpawnRule first, MobSpawnRule next) {
+        List<MobSpawnRule> stages = new ArrayList<>();
+        flatten(first, stages);
+        flatten(next, stages);
+        return new RuleChain(stages.toArray(new MobSpawnRule[0]));
+    }
+
+    static void flatten(MobSpawnRule rule, List<MobSpawnRule> into) {
+        if (rule instanceof RuleChain chain) {
+            for (MobSpawnRule stage : chain.stages) {
+                into.add(stage);
+            }
+        } else {
+            into.add(rule);
+        }
+    }
+
+    @Override
+    public double getSpawnMultiplier(SpawnContext context) {
+        double multiplier = 1.0;
+        for (MobSpawnRule stage : stages) {
+            multiplier *= stage.getSpawnMultiplier(context);
+            if (!(multiplier > 0.0)) {
+                return multiplier;
+            }
+        }
+        return multiplier;
+    }
+}
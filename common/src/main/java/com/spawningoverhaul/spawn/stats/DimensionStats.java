@@ -0,0 +1,128 @@
+package com.spawningoverhaul.spawn.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and latency histograms for one dimension.
+ * Recording is lock-free (atomic adds into preallocated arrays) and never allocates.
+ *
+ * Latencies go into power-of-two buckets: bucket N holds samples in [2^N, 2^(N+1)) nanoseconds.
+ */
+public class DimensionStats {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray counters = new AtomicLongArray(SpawnCounter.VALUES.length);
+    // Per probe: sample count, total nanoseconds
+    private final AtomicLongArray probeTotals = new AtomicLongArray(SpawnProbe.VALUES.length * 2);
+    private final AtomicLongArray histograms = new AtomicLongArray(SpawnProbe.VALUES.length * BUCKETS);
+
+    // Baseline for the interval (rate) view, only touched by commands
+    private volatile Snapshot intervalStart = Snapshot.take(this);
+
+    public void increment(SpawnCounter counter) {
+        counters.incrementAndGet(counter.ordinal());
+    }
+
+    public void recordTime(SpawnProbe probe, long nanos) {
+        int index = probe.ordinal();
+        probeTotals.incrementAndGet(index * 2);
+        probeTotals.addAndGet(index * 2 + 1, nanos);
+        int bucket = nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+        histograms.incrementAndGet(index * BUCKETS + bucket);
+    }
+
+    public long get(SpawnCounter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    public long getSamples(SpawnProbe probe) {
+        return probeTotals.get(probe.ordinal() * 2);
+    }
+
+    public long getTotalNanos(SpawnProbe probe) {
+        return probeTotals.get(probe.ordinal() * 2 + 1);
+    }
+
+    /**
+     * Approximate latency percentile from the histogram.
+     *
+     * @param probe The probe
+     * @param percentile Percentile from 0.0 to 1.0
+     * @return Upper bound of the bucket containing the percentile, in nanoseconds (0 if no samples)
+     */
+    public long getPercentileNanos(SpawnProbe probe, double percentile) {
+        long samples = getSamples(probe);
+        if (samples == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(samples * percentile);
+        long seen = 0;
+        int base = probe.ordinal() * BUCKETS;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histograms.get(base + bucket);
+            if (seen >= target) {
+                return bucket >= 62 ? Long.MAX_VALUE : (2L << bucket) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Clear all counters and histograms.
+     * Concurrent recordings may survive or be lost; both are acceptable for statistics.
+     */
+    public void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        for (int i = 0; i < probeTotals.length(); i++) {
+            probeTotals.set(i, 0);
+        }
+        for (int i = 0; i < histograms.length(); i++) {
+            histograms.set(i, 0);
+        }
+        intervalStart = Snapshot.take(this);
+    }
+
+    /**
+     * Start a new interval and return the one that just ended.
+     *
+     * @return The baseline of the interval that just ended
+     */
+    public Snapshot rollInterval() {
+        Snapshot previous = intervalStart;
+        intervalStart = Snapshot.take(this);
+        return previous;
+    }
+
+    /**
+     * Point-in-time copy of the counters, used to compute per-interval rates.
+     */
+    public record Snapshot(long[] counters, long[] probeTotals, long nanoTime) {
+        static Snapshot take(DimensionStats stats) {
+            long[] counters = new long[stats.counters.length()];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = stats.counters.get(i);
+            }
+            long[] probeTotals = new long[stats.probeTotals.length()];
+            for (int i = 0; i < probeTotals.length; i++) {
+                probeTotals[i] = stats.probeTotals.get(i);
+            }
+            return new Snapshot(counters, probeTotals, System.nanoTime());
+        }
+
+        public long get(SpawnCounter counter) {
+            return counters[counter.ordinal()];
+        }
+
+        public long getSamples(SpawnProbe probe) {
+            return probeTotals[probe.ordinal() * 2];
+        }
+
+        public long getTotalNanos(SpawnProbe probe) {
+            return probeTotals[probe.ordinal() * 2 + 1];
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.spawningoverhaul.spawn.stats;
+
+/**
+ * Event counters recorded per dimension.
+ */
+public enum SpawnCounter {
+    ATTEMPTS("Attempts"),
+    ALLOWED("Allowed"),
+    DENIED_ZERO_MULTIPLIER("Denied (mob rule / zero multiplier)"),
+    DENIED_ROLL("Denied (probability roll)"),
+    DENIED_BIOME("Denied (blacklisted biome)"),
+    STRUCTURE_CACHE_HIT("Structure cache hits"),
+    STRUCTURE_CACHE_MISS("Structure cache misses"),
+    ENVIRONMENT_CACHE_HIT("Environment cache hits"),
+    ENVIRONMENT_CACHE_MISS("Environment cache misses"),
+    PRECOMPUTE_HIT("Precomputed grid hits"),
+    PRECOMPUTE_MISS("Precomputed grid misses"),
+    FOREST_SCAN_SKIPPED("Forest scans skipped"),
+    STRUCTURE_LOOKUP_SKIPPED("Structure lookups skipped"),
+    BATCH_PROBE_SHARED("Probes shared within batches"),
+    EARLY_GATE_PASSED("Packs passed early gate"),
+    EARLY_GATE_REJECTED("Packs rejected by section bound");
+
+    static final SpawnCounter[] VALUES = values();
+
+    private final String label;
+
+    SpawnCounter(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,27 @@
+package com.spawningoverhaul.spawn.stats;
+
+/**
+ * Timed sections of the spawn hot path.
+ * Only sections that cost well above a timer read are timed; sky and cave checks are not.
+ * Timings are inclusive: a probe evaluated lazily inside a mob rule is also
+ * counted in {@link #RULE_EVALUATION}, and everything is counted in {@link #DECISION}.
+ */
+public enum SpawnProbe {
+    DECISION("Decision (total)"),
+    FOREST_SCAN("Forest scan"),
+    STRUCTURE_LOOKUP("Structure lookup"),
+    RULE_EVALUATION("Mob rule evaluation"),
+    EARLY_GATE("Early pack gate");
+
+    static final SpawnProbe[] VALUES = values();
+
+    private final String label;
+
+    SpawnProbe(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,85 @@
+package com.spawningoverhaul.spawn.stats;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.LevelSpawnState;
+import net.minecraft.world.level.Level;
+
+
+/**
+ * Entry point for hot-path instrumentation.
+ * Counters are always recorded; latency timing is off unless {@code recordSpawnTimings} is enabled.
+ *
+ * Typical use around a probe:
+ * <pre>
+ * long start = SpawnStats.startTimer();
+ * ...probe...
+ * SpawnStats.stopTimer(level, SpawnProbe.FOREST_SCAN, start);
+ * </pre>
+ */
+public class SpawnStats {
+
+    /**
+     * Get the stats for a level, held by its {@link LevelSpawnState}.
+     */
+    public static DimensionStats forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).stats();
+    }
+
+    /**
+     * Reset every level's counters and histograms.
+     */
+    public static void resetAll() {
+        LevelSpawnState.all().values().forEach(state -> state.stats().reset());
+    }
+
+    /**
+     * Start timing a probe.
+     *
+     * @return Start timestamp, or 0 when timing is disabled
+     */
+    public static long startTimer() {
+        return CompiledConfig.get().recordSpawnTimings ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Finish timing a probe started with {@link #startTimer()}.
+     *
+     * @param level The level the probe ran in (ignored if null)
+     * @param probe The probe
+     * @param start Value returned by {@link #startTimer()}
+     */
+    public static void stopTimer(Level level, SpawnProbe probe, long start) {
+        if (start != 0L && level != null) {
+            forLevel(level).recordTime(probe, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Finish timing a probe started with {@link #startTimer()}, into stats already resolved for the level.
+     *
+     * @param stats The stats of the level the probe ran in (ignored if null)
+     * @param probe The probe
+     * @param start Value returned by {@link #startTimer()}
+     */
+    public static void stopTimer(DimensionStats stats, SpawnProbe probe, long start) {
+        if (start != 0L && stats != null) {
+            stats.recordTime(probe, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record the outcome of a spawn decision.
+     *
+     * @param stats The stats of the level the decision was made in
+     * @param outcome {@link SpawnCounter#ALLOWED} or one of the DENIED_* counters
+     * @param start Value returned by {@link #startTimer()} before the decision started
+     */
+    public static void recordDecision(DimensionStats stats, SpawnCounter outcome, long start) {
+        stats.increment(SpawnCounter.ATTEMPTS);
+        stats.increment(outcome);
+
+        if (start != 0L) {
+            stats.recordTime(SpawnProbe.DECISION, System.nanoTime() - start);
+        }
+    }
+}
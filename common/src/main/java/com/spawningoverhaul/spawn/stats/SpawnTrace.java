@@ -0,0 +1,162 @@
+package com.spawningoverhaul.spawn.stats;
+
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.LevelSpawnState;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size ring buffer of the most recent spawn decisions in a dimension, for diagnosing
+ * why mobs do or do not spawn somewhere without logging every attempt.
+ *
+ * Each entry holds the packed position, the entity type registry id, each factor of the multiplier,
+ * the final multiplier and the outcome. When the roll was decided before the forest scan, the
+ * environment factor is the base or cave value alone; a structure lookup that was skipped is NaN.
+ * The final multiplier is the one the roll was compared against: the lowest the unresolved factors
+ * allowed for an allowed spawn, the highest for a denied roll. Denials without a roll always record
+ * a final multiplier of zero.
+ * Packs rejected by the {@link com.spawningoverhaul.spawn.EarlySpawnGate} are recorded without a
+ * mob type or factors, with the highest multiplier the gate allowed as the final multiplier.
+ *
+ * Recording is lock-free and never allocates: a writer claims a slot with one atomic increment and
+ * fills preallocated arrays. Each slot carries a stamp that is cleared while it is written, so a
+ * {@link #snapshot} taken concurrently skips entries that are being overwritten.
+ */
+public class SpawnTrace {
+
+    public static final int CAPACITY = 8192;
+    private static final int MASK = CAPACITY - 1;
+    private static final int FACTORS = 5;
+
+    private final AtomicLong next = new AtomicLong();
+    // Sequence number + 1 of the entry in each slot, 0 while empty or being written
+    private final AtomicLongArray stamps = new AtomicLongArray(CAPACITY);
+    private final long[] gameTimes = new long[CAPACITY];
+    private final long[] positions = new long[CAPACITY];
+    private final int[] entityTypes = new int[CAPACITY];
+    private final byte[] outcomes = new byte[CAPACITY];
+    // Per slot: environment, structure, mob, biome and final multiplier
+    private final float[] factors = new float[CAPACITY * FACTORS];
+
+    /**
+     * Get the trace for a level, creating it on first use.
+     */
+    public static SpawnTrace forLevel(Level level) {
+        return LevelSpawnState.forLevel(level).trace();
+    }
+
+    /**
+     * Start over with an empty trace in every level.
+     */
+    public static void clearAll() {
+        LevelSpawnState.resetTraceAll();
+    }
+
+    /**
+     * Record a decision, if tracing is enabled.
+     *
+     * @param level The level the decision was made in
+     * @param pos The spawn position
+     * @param entityType The mob type, or null for a whole pack
+     * @param outcome {@link SpawnCounter#ALLOWED}, a DENIED_* counter or an early gate rejection
+     * @param environment Environment factor (base, cave or forest; base or cave only if the forest was not scanned)
+     * @param structure Structure factor, NaN if not evaluated
+     * @param mob Mob factor (rules and configured multiplier), NaN if not evaluated
+     * @param biome Biome factor, NaN if not evaluated
+     * @param multiplier Multiplier the roll was compared against, zero for denials without a roll
+     */
+    public static void record(Level level, BlockPos pos, EntityType<?> entityType, SpawnCounter outcome,
+                              double environment, double structure, double mob, double biome, double multiplier) {
+        if (!CompiledConfig.get().recordSpawnTrace) {
+            return;
+        }
+        int typeId = entityType == null ? -1 : BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+        forLevel(level).add(level.getGameTime(), pos.asLong(), typeId, outcome,
+                environment, structure, mob, biome, multiplier);
+    }
+
+    private void add(long gameTime, long pos, int typeId, SpawnCounter outcome,
+                     double environment, double structure, double mob, double biome, double multiplier) {
+        long sequence = next.getAndIncrement();
+        int slot = (int) sequence & MASK;
+
+        stamps.set(slot, 0L);
+        // Keep the field writes below from moving above the cleared stamp
+        VarHandle.releaseFence();
+        gameTimes[slot] = gameTime;
+        positions[slot] = pos;
+        entityTypes[slot] = typeId;
+        outcomes[slot] = (byte) outcome.ordinal();
+        int base = slot * FACTORS;
+        factors[base] = (float) environment;
+        factors[base + 1] = (float) structure;
+        factors[base + 2] = (float) mob;
+        factors[base + 3] = (float) biome;
+        factors[base + 4] = (float) multiplier;
+        stamps.set(slot, sequence + 1);
+    }
+
+    /**
+     * Number of decisions recorded since the trace was created (including overwritten ones).
+     */
+    public long recorded() {
+        return next.get();
+    }
+
+    /**
+     * Copy the buffered entries, oldest first.
+     * Entries overwritten while copying are left out.
+     */
+    public List<Entry> snapshot() {
+        long end = next.get();
+        long start = Math.max(0L, end - CAPACITY);
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) sequence & MASK;
+            long stamp = stamps.get(slot);
+            if (stamp != sequence + 1) {
+                continue;
+            }
+            int base = slot * FACTORS;
+            Entry entry = new Entry(gameTimes[slot], positions[slot], entityTypes[slot],
+                    SpawnCounter.VALUES[outcomes[slot]], factors[base], factors[base + 1], factors[base + 2],
+                    factors[base + 3], factors[base + 4]);
+            // Keep the field reads above from moving below the stamp check
+            VarHandle.acquireFence();
+            if (stamps.get(slot) == stamp) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * One traced decision.
+     *
+     * @param pos Packed position (see {@link BlockPos#asLong})
+     * @param entityTypeId Entity type registry id, -1 for a whole pack
+     */
+    public record Entry(long gameTime, long pos, int entityTypeId, SpawnCounter outcome,
+                        float environment, float structure, float mob, float biome, float multiplier) {
+
+        /**
+         * Entity type ID (e.g. minecraft:zombie), or "pack" for a whole pack.
+         */
+        public String entityTypeName() {
+            if (entityTypeId < 0) {
+                return "pack";
+            }
+            EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.byId(entityTypeId);
+            return BuiltInRegistries.ENTITY_TYPE.getKey(type).toString();
+        }
+    }
+}
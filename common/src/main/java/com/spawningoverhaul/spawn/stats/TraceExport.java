@@ -0,0 +1,91 @@
+package com.spawningoverhaul.spawn.stats;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import net.minecraft.core.BlockPos;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes {@link SpawnTrace} snapshots to files. Safe to call off the main thread.
+ *
+ * CSV has one row per decision; empty cells are factors the decision did not evaluate.
+ *
+ * The binary format is big-endian:
+ * - Header: magic "SOTR", format version (short), entity type count (int), then per type its
+ *   registry id (int) and ID (UTF); outcome count (byte), then each outcome label (UTF); entry count (int)
+ * - Per entry (41 bytes): game time (long), packed position (long), entity type id (int, -1 for a pack),
+ *   outcome index (byte), then environment, structure, mob, biome and final multiplier (floats, NaN if not evaluated)
+ */
+public final class TraceExport {
+
+    private static final int MAGIC = 0x534F5452; // "SOTR"
+    private static final short VERSION = 1;
+
+    private TraceExport() {
+    }
+
+    public static void writeCsv(Path file, List<SpawnTrace.Entry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("game_time,x,y,z,entity,outcome,environment,structure,mob,biome,multiplier");
+            out.newLine();
+            for (SpawnTrace.Entry entry : entries) {
+                out.write(entry.gameTime() + "," + BlockPos.getX(entry.pos()) + "," + BlockPos.getY(entry.pos()) + ","
+                        + BlockPos.getZ(entry.pos()) + "," + entry.entityTypeName() + "," + entry.outcome().name() + ","
+                        + format(entry.environment()) + "," + format(entry.structure()) + "," + format(entry.mob()) + ","
+                        + format(entry.biome()) + "," + format(entry.multiplier()));
+                out.newLine();
+            }
+        }
+    }
+
+    public static void writeBinary(Path file, List<SpawnTrace.Entry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        // Only the entity types that occur, so readers need no registry dump
+        Int2ObjectLinkedOpenHashMap<String> types = new Int2ObjectLinkedOpenHashMap<>();
+        for (SpawnTrace.Entry entry : entries) {
+            if (entry.entityTypeId() >= 0 && !types.containsKey(entry.entityTypeId())) {
+                types.put(entry.entityTypeId(), entry.entityTypeName());
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(types.size());
+            for (var type : types.int2ObjectEntrySet()) {
+                out.writeInt(type.getIntKey());
+                out.writeUTF(type.getValue());
+            }
+            out.writeByte(SpawnCounter.VALUES.length);
+            for (SpawnCounter counter : SpawnCounter.VALUES) {
+                out.writeUTF(counter.name());
+            }
+
+            out.writeInt(entries.size());
+            for (SpawnTrace.Entry entry : entries) {
+                out.writeLong(entry.gameTime());
+                out.writeLong(entry.pos());
+                out.writeInt(entry.entityTypeId());
+                out.writeByte(entry.outcome().ordinal());
+                out.writeFloat(entry.environment());
+                out.writeFloat(entry.structure());
+                out.writeFloat(entry.mob());
+                out.writeFloat(entry.biome());
+                out.writeFloat(entry.multiplier());
+            }
+        }
+    }
+
+    private static String format(float value) {
+        return Float.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -1,9 +1,17 @@
 package com.spawningoverhaul;
 
 import com.spawningoverhaul.command.SpawnDebugCommand;
+import com.spawningoverhaul.command.SpawnStatsCommand;
+import com.spawningoverhaul.command.SpawnTraceCommand;
 import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.platform.FabricServices;
+import com.spawningoverhaul.spawn.SpawnLifecycle;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +27,18 @@ public class SpawningOverhaulFabric implements ModInitializer {
             public void info(String message, Object... args) {
                 LOGGER.info(String.format(message.replace("{}", "%s"), args));
             }
+
+            @Override
+            public void error(String message, Throwable throwable) {
+                LOGGER.error(message, throwable);
+            }
         });
 
         LOGGER.info("Initializing {} for Fabric", SpawningOverhaulCommon.MOD_NAME);
 
+        // Loader services for common code (chunk attachments, mod version)
+        SpawningOverhaulCommon.setServices(new FabricServices());
+
         // Set config path for Fabric
         SpawningConfig.setConfigPath(FabricLoader.getInstance().getConfigDir());
 
@@ -37,12 +53,25 @@ public class SpawningOverhaulFabric implements ModInitializer {
     private void registerFabricEvents() {
         // Spawn handling uses mixins (see SpawnHelperMixin)
         LOGGER.info("Spawn handling configured via mixins");
+
+        // Keep spawn indices in sync with the world (block changes arrive via LevelChunkMixin)
+        ServerChunkEvents.CHUNK_LOAD.register(SpawnLifecycle::onChunkLoad);
+        ServerChunkEvents.CHUNK_UNLOAD.register(SpawnLifecycle::onChunkUnload);
+        ServerTickEvents.END_WORLD_TICK.register(SpawnLifecycle::onLevelTick);
+        ServerWorldEvents.LOAD.register((server, level) -> SpawnLifecycle.onLevelLoad(level));
+        ServerWorldEvents.UNLOAD.register((server, level) -> SpawnLifecycle.onLevelUnload(level));
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> SpawnLifecycle.onServerStarting());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> SpawnLifecycle.onServerStopped());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> SpawnLifecycle.onDataPackReload());
+        LOGGER.info("Registered world lifecycle events");
     }
 
     private void registerCommands() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
             SpawnDebugCommand.register(dispatcher);
+            SpawnStatsCommand.register(dispatcher);
+            SpawnTraceCommand.register(dispatcher);
         });
-        LOGGER.info("Registered /spawndebug command");
+        LOGGER.info("Registered /spawndebug, /spawnstats and /spawntrace commands");
     }
 }
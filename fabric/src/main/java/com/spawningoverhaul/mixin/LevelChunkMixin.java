@@ -0,0 +1,26 @@
+package com.spawningoverhaul.mixin;
+
+import com.spawningoverhaul.spawn.SpawnLifecycle;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunk.class)
+public class LevelChunkMixin {
+
+    /**
+     * Forward block changes to the spawn indices.
+     * setBlockState returns the previous state, or null when nothing changed.
+     */
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void onSetBlockState(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir) {
+        BlockState previous = cir.getReturnValue();
+        if (previous != null) {
+            SpawnLifecycle.onBlockChanged(((LevelChunk) (Object) this).getLevel(), pos, previous, state);
+        }
+    }
+}
@@ -1,23 +1,61 @@
 package com.spawningoverhaul.mixin;
 
-import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.EarlySpawnGate;
 import com.spawningoverhaul.spawn.SpawnContext;
 import com.spawningoverhaul.spawn.SpawnMultiplierCalculator;
+import com.spawningoverhaul.spawn.SpawnRoll;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobCategory;
 import net.minecraft.world.entity.MobSpawnType;
 import net.minecraft.world.entity.SpawnPlacementTypes;
 import net.minecraft.world.level.NaturalSpawner;
+import net.minecraft.world.level.chunk.ChunkAccess;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(NaturalSpawner.class)
 public class SpawnHelperMixin {
 
+    /**
+     * Pack start: opens the pack's probe batch, and with earlySpawnRejection enabled rolls
+     * acceptance once per pack before vanilla picks mob types and builds entities.
+     */
+    @Inject(method = "spawnCategoryForPosition(Lnet/minecraft/world/entity/MobCategory;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/level/chunk/ChunkAccess;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/NaturalSpawner$SpawnPredicate;Lnet/minecraft/world/level/NaturalSpawner$AfterSpawnCallback;)V",
+            at = @At("HEAD"), cancellable = true)
+    private static void onSpawnCategoryForPositionHead(
+            MobCategory category,
+            ServerLevel level,
+            ChunkAccess chunk,
+            BlockPos pos,
+            NaturalSpawner.SpawnPredicate filter,
+            NaturalSpawner.AfterSpawnCallback callback,
+            CallbackInfo ci
+    ) {
+        if (!EarlySpawnGate.beginPack(level, pos)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "spawnCategoryForPosition(Lnet/minecraft/world/entity/MobCategory;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/level/chunk/ChunkAccess;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/NaturalSpawner$SpawnPredicate;Lnet/minecraft/world/level/NaturalSpawner$AfterSpawnCallback;)V",
+            at = @At("RETURN"))
+    private static void onSpawnCategoryForPositionReturn(
+            MobCategory category,
+            ServerLevel level,
+            ChunkAccess chunk,
+            BlockPos pos,
+            NaturalSpawner.SpawnPredicate filter,
+            NaturalSpawner.AfterSpawnCallback callback,
+            CallbackInfo ci
+    ) {
+        EarlySpawnGate.endPack();
+    }
+
     /**
      * Inject into the spawn position validation to modify spawn decisions based on immersive spawning rules.
      * This intercepts natural spawn attempts and applies environmental multipliers.
@@ -30,7 +68,7 @@ public class SpawnHelperMixin {
             EntityType<?> entityType,
             CallbackInfoReturnable<Boolean> cir
     ) {
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
+        CompiledConfig config = CompiledConfig.get();
 
         // Check if immersive spawning is enabled
         if (!config.enableImmersiveSpawning) {
@@ -42,15 +80,12 @@ public class SpawnHelperMixin {
             return;
         }
 
-        // Create spawn context for this attempt
-        SpawnContext context = new SpawnContext(level, pos, entityType, MobSpawnType.NATURAL);
-
-        // Calculate spawn multiplier based on environment and mob rules
-        double multiplier = SpawnMultiplierCalculator.calculateMultiplier(context);
+        // Create spawn context for this attempt, sharing probes with the rest of the pack
+        SpawnContext context = new SpawnContext(level, pos, entityType, MobSpawnType.NATURAL,
+                EarlySpawnGate.currentBatch(level));
 
-        // Make probabilistic spawn decision
-        RandomSource random = level.getRandom();
-        boolean shouldAllow = SpawnMultiplierCalculator.shouldAllowSpawn(multiplier, random);
+        // Make probabilistic spawn decision based on environment and mob rules
+        boolean shouldAllow = SpawnMultiplierCalculator.decide(context, SpawnRoll.key(level));
 
         // If spawn is denied, cancel the spawn
         if (!shouldAllow) {
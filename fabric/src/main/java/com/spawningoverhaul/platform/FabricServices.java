@@ -1,11 +1,22 @@
 package com.spawningoverhaul.platform;
 
+import com.spawningoverhaul.SpawningOverhaulCommon;
+import com.spawningoverhaul.spawn.persist.ChunkSpawnSummary;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.chunk.LevelChunk;
 
 import java.nio.file.Path;
 
 public class FabricServices implements Services {
 
+    // Saved with the chunk through the Fabric data attachment API
+    private static final AttachmentType<ChunkSpawnSummary> SPAWN_SUMMARY = AttachmentRegistry.<ChunkSpawnSummary>builder()
+            .persistent(ChunkSpawnSummary.CODEC)
+            .buildAndRegister(ResourceLocation.fromNamespaceAndPath(SpawningOverhaulCommon.MOD_ID, "spawn_summary"));
+
     @Override
     public Path getConfigDir() {
         return FabricLoader.getInstance().getConfigDir();
@@ -20,4 +31,21 @@ public class FabricServices implements Services {
     public String getLoaderName() {
         return "Fabric";
     }
+
+    @Override
+    public String getModVersion() {
+        return FabricLoader.getInstance().getModContainer(SpawningOverhaulCommon.MOD_ID)
+                .map(container -> container.getMetadata().getVersion().getFriendlyString())
+                .orElse("unknown");
+    }
+
+    @Override
+    public ChunkSpawnSummary getSpawnSummary(LevelChunk chunk) {
+        return chunk.getAttached(SPAWN_SUMMARY);
+    }
+
+    @Override
+    public void setSpawnSummary(LevelChunk chunk, ChunkSpawnSummary summary) {
+        chunk.setAttached(SPAWN_SUMMARY, summary);
+    }
 }
@@ -1,7 +1,10 @@
 package com.spawningoverhaul;
 
 import com.spawningoverhaul.command.SpawnDebugCommand;
+import com.spawningoverhaul.command.SpawnStatsCommand;
+import com.spawningoverhaul.command.SpawnTraceCommand;
 import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.platform.NeoForgeServices;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
@@ -22,10 +25,19 @@ public class SpawningOverhaulNeoForge {
             public void info(String message, Object... args) {
                 LOGGER.info(String.format(message.replace("{}", "%s"), args));
             }
+
+            @Override
+            public void error(String message, Throwable throwable) {
+                LOGGER.error(message, throwable);
+            }
         });
 
         LOGGER.info("Initializing {} for NeoForge", SpawningOverhaulCommon.MOD_NAME);
 
+        // Loader services for common code (chunk attachments, mod version)
+        SpawningOverhaulCommon.setServices(new NeoForgeServices());
+        NeoForgeServices.ATTACHMENT_TYPES.register(modBus);
+
         // Set config path for NeoForge
         SpawningConfig.setConfigPath(FMLPaths.CONFIGDIR.get());
 
@@ -42,6 +54,10 @@ public class SpawningOverhaulNeoForge {
         net.neoforged.neoforge.common.NeoForge.EVENT_BUS.register(new com.spawningoverhaul.event.SpawnEventHandler());
         LOGGER.info("Registered NeoForge spawn event handler for immersive spawning");
 
+        // Keep spawn indices in sync with the world (block changes arrive via LevelChunkMixin)
+        net.neoforged.neoforge.common.NeoForge.EVENT_BUS.register(new com.spawningoverhaul.event.LevelEventHandler());
+        LOGGER.info("Registered NeoForge level event handler");
+
         // Register command event handler
         net.neoforged.neoforge.common.NeoForge.EVENT_BUS.register(new CommandRegistrationHandler());
         LOGGER.info("Registered command event handler");
@@ -52,6 +68,8 @@ public class SpawningOverhaulNeoForge {
         @SubscribeEvent
         public void onRegisterCommands(RegisterCommandsEvent event) {
             SpawnDebugCommand.register(event.getDispatcher());
+            SpawnStatsCommand.register(event.getDispatcher());
+            SpawnTraceCommand.register(event.getDispatcher());
         }
     }
 }
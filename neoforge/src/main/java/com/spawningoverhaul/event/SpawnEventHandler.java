@@ -1,9 +1,10 @@
 package com.spawningoverhaul.event;
 
-import com.spawningoverhaul.SpawningOverhaulCommon;
-import com.spawningoverhaul.config.SpawningConfig;
+import com.spawningoverhaul.config.CompiledConfig;
+import com.spawningoverhaul.spawn.EarlySpawnGate;
 import com.spawningoverhaul.spawn.SpawnContext;
 import com.spawningoverhaul.spawn.SpawnMultiplierCalculator;
+import com.spawningoverhaul.spawn.SpawnRoll;
 import net.minecraft.server.level.ServerLevel;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.neoforge.event.entity.living.MobSpawnEvent;
@@ -21,7 +22,7 @@ public class SpawnEventHandler {
     @SubscribeEvent
     public void onMobSpawnPositionCheck(MobSpawnEvent.PositionCheck event) {
         // Get config
-        SpawningConfig config = SpawningConfig.HANDLER().instance();
+        CompiledConfig config = CompiledConfig.get();
 
         // Check if immersive spawning is enabled
         if (!config.enableImmersiveSpawning) {
@@ -50,32 +51,16 @@ public class SpawnEventHandler {
         var spawnPos = new net.minecraft.core.BlockPos((int) event.getX(), (int) event.getY(), (int) event.getZ());
         var spawnType = event.getSpawnType();
 
-        // Create spawn context for this attempt
-        SpawnContext context = new SpawnContext(serverLevel, spawnPos, entityType, spawnType);
+        // Create spawn context for this attempt, sharing probes with the rest of the pack
+        SpawnContext context = new SpawnContext(serverLevel, spawnPos, entityType, spawnType,
+                EarlySpawnGate.currentBatch(serverLevel));
 
-        // Calculate spawn multiplier based on environment and mob rules
-        double multiplier = SpawnMultiplierCalculator.calculateMultiplier(context);
+        // Make probabilistic spawn decision based on environment and mob rules
+        boolean shouldAllow = SpawnMultiplierCalculator.decide(context, SpawnRoll.key(serverLevel));
 
-        // Make probabilistic spawn decision
-        boolean shouldAllow = SpawnMultiplierCalculator.shouldAllowSpawn(multiplier, serverLevel.getRandom());
-
-        // If spawn is denied, set result to FAIL
+        // If spawn is denied, set result to FAIL (the decision is recorded in the spawn trace)
         if (!shouldAllow) {
             event.setResult(MobSpawnEvent.PositionCheck.Result.FAIL);
-
-            // Debug logging
-            if (config.debugmode)
-                if (SpawningOverhaulCommon.getLogger() != null) {
-                    SpawningOverhaulCommon.getLogger().info(
-                            "Denied spawn of {} at {} (multiplier: {}, outside: {}, cave: {}, forest: {})",
-                            entityType.getDescription().getString(),
-                            spawnPos,
-                            String.format("%.2f", multiplier),
-                            context.isOutside(),
-                            context.isInCave(),
-                            String.format("%.0f%%", context.getForestDensity() * 100.0)
-                    );
-                }
         }
         // If allowed, leave result as DEFAULT to let vanilla checks proceed
     }
@@ -0,0 +1,50 @@
+package com.spawningoverhaul.mixin;
+
+import com.spawningoverhaul.spawn.EarlySpawnGate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.level.NaturalSpawner;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(NaturalSpawner.class)
+public class NaturalSpawnerMixin {
+
+    /**
+     * Pack start: opens the pack's probe batch, and with earlySpawnRejection enabled rolls acceptance
+     * once per pack before vanilla picks mob types, builds entities and fires MobSpawnEvent.PositionCheck.
+     */
+    @Inject(method = "spawnCategoryForPosition(Lnet/minecraft/world/entity/MobCategory;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/level/chunk/ChunkAccess;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/NaturalSpawner$SpawnPredicate;Lnet/minecraft/world/level/NaturalSpawner$AfterSpawnCallback;)V",
+            at = @At("HEAD"), cancellable = true)
+    private static void onSpawnCategoryForPositionHead(
+            MobCategory category,
+            ServerLevel level,
+            ChunkAccess chunk,
+            BlockPos pos,
+            NaturalSpawner.SpawnPredicate filter,
+            NaturalSpawner.AfterSpawnCallback callback,
+            CallbackInfo ci
+    ) {
+        if (!EarlySpawnGate.beginPack(level, pos)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "spawnCategoryForPosition(Lnet/minecraft/world/entity/MobCategory;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/level/chunk/ChunkAccess;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/NaturalSpawner$SpawnPredicate;Lnet/minecraft/world/level/NaturalSpawner$AfterSpawnCallback;)V",
+            at = @At("RETURN"))
+    private static void onSpawnCategoryForPositionReturn(
+            MobCategory category,
+            ServerLevel level,
+            ChunkAccess chunk,
+            BlockPos pos,
+            NaturalSpawner.SpawnPredicate filter,
+            NaturalSpawner.AfterSpawnCallback callback,
+            CallbackInfo ci
+    ) {
+        EarlySpawnGate.endPack();
+    }
+}
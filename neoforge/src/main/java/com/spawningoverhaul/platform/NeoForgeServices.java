@@ -1,12 +1,30 @@
 package com.spawningoverhaul.platform;
 
+import com.spawningoverhaul.SpawningOverhaulCommon;
+import com.spawningoverhaul.spawn.persist.ChunkSpawnSummary;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.fml.ModList;
 import net.neoforged.fml.loading.FMLLoader;
 import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
 
 import java.nio.file.Path;
+import java.util.function.Supplier;
 
 public class NeoForgeServices implements Services {
 
+    // Registered on the mod bus by SpawningOverhaulNeoForge
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES =
+            DeferredRegister.create(NeoForgeRegistries.ATTACHMENT_TYPES, SpawningOverhaulCommon.MOD_ID);
+
+    // Saved with the chunk through NeoForge data attachments; only read after hasData, so there is no default
+    private static final Supplier<AttachmentType<ChunkSpawnSummary>> SPAWN_SUMMARY = ATTACHMENT_TYPES.register(
+            "spawn_summary", () -> AttachmentType.<ChunkSpawnSummary>builder(() -> null)
+                    .serialize(ChunkSpawnSummary.CODEC)
+                    .build());
+
     @Override
     public Path getConfigDir() {
         return FMLPaths.CONFIGDIR.get();
@@ -21,4 +39,25 @@ public class NeoForgeServices implements Services {
     public String getLoaderName() {
         return "NeoForge";
     }
+
+    @Override
+    public String getModVersion() {
+        return ModList.get().getModContainerById(SpawningOverhaulCommon.MOD_ID)
+                .map(container -> container.getModInfo().getVersion().toString())
+                .orElse("unknown");
+    }
+
+    @Override
+    public ChunkSpawnSummary getSpawnSummary(LevelChunk chunk) {
+        return chunk.hasData(SPAWN_SUMMARY) ? chunk.getData(SPAWN_SUMMARY) : null;
+    }
+
+    @Override
+    public void setSpawnSummary(LevelChunk chunk, ChunkSpawnSummary summary) {
+        if (summary == null) {
+            chunk.removeData(SPAWN_SUMMARY);
+        } else {
+            chunk.setData(SPAWN_SUMMARY, summary);
+        }
+    }
 }